@@ -0,0 +1,77 @@
+package io.github.emnanaija.userapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (Dé)sérialisation Jackson des DTO avec un ObjectMapper configuré comme celui de Spring Boot,
+ * en JSON et en CBOR (même configuration que CborConfig).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private UserResponse response;
+    private ObjectReader cborRequestReader;
+    private ObjectWriter cborResponseWriter;
+    private byte[] requestCbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        UserRequest request = new UserRequest("JeanDupont", LocalDate.of(1990, 5, 15), "France", "0123456789", "MALE");
+        // dates ISO, comme spring.jackson.serialization.write-dates-as-timestamps=false par défaut sous Boot
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        requestReader = objectMapper.readerFor(UserRequest.class);
+        responseWriter = objectMapper.writerFor(UserResponse.class);
+        requestJson = objectMapper.writeValueAsBytes(request);
+
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborRequestReader = cborMapper.readerFor(UserRequest.class);
+        cborResponseWriter = cborMapper.writerFor(UserResponse.class);
+        requestCbor = cborMapper.writeValueAsBytes(request);
+        response = new UserResponse(1L, "JeanDupont", LocalDate.of(1990, 5, 15), "France", "0123456789", "MALE");
+    }
+
+    @Benchmark
+    public UserRequest deserializeUserRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public UserRequest deserializeUserRequestCbor() throws IOException {
+        return cborRequestReader.readValue(requestCbor);
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponseCbor() throws IOException {
+        return cborResponseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.emnanaija.userapi.benchmark;
+
+import io.github.emnanaija.userapi.UserapiApplication;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.entity.UserEntity;
+import io.github.emnanaija.userapi.repository.UserRepository;
+import io.github.emnanaija.userapi.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * createUser / getUser de bout en bout (service, AOP, JPA) contre la base H2 en mémoire.
+ * getUser passe par le cache applicatif ; findById (entité managée) et findResponseById
+ * (projection DTO) mesurent l'accès base seul.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private Long existingId;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(UserapiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--userapi.tracing.mode=OFF",
+                "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        existingId = userService.createUser(newRequest()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponse createUser() {
+        return userService.createUser(newRequest());
+    }
+
+    @Benchmark
+    public UserResponse getUser() {
+        return userService.getUser(existingId);
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findById() {
+        return userRepository.findById(existingId);
+    }
+
+    // chemin de lecture de getUser : projection DTO, sans entité managée
+    @Benchmark
+    public Optional<UserResponse> findResponseById() {
+        return userRepository.findResponseById(existingId);
+    }
+
+    private UserRequest newRequest() {
+        return new UserRequest("bench-" + sequence.incrementAndGet(), LocalDate.of(1990, 5, 15),
+                "France", "0123456789", "FEMALE");
+    }
+}
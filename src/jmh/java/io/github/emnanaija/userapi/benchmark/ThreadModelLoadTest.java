@@ -0,0 +1,99 @@
+package io.github.emnanaija.userapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur de charge HTTP en boucle fermée pour comparer le modèle thread-par-requête
+ * et le profil "virtual" sur une instance déjà démarrée.
+ * Arguments : baseUrl concurrence durée(s) [chemin]
+ * Exemple : mvn -Pbenchmark test-compile exec:exec \
+ *   -Dbenchmark.main=io.github.emnanaija.userapi.benchmark.ThreadModelLoadTest \
+ *   -Djmh.args="http://localhost:8078 400 30 /api/users?size=50"
+ */
+public class ThreadModelLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8078";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String path = args.length > 3 ? args[3] : "/api/users?size=50";
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            workers.execute(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    latencies[worker] = samples;
+                    counts[worker] = n;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("requêtes=%d erreurs=%d débit=%.1f req/s%n", total, errors.get(), total / (double) seconds);
+        System.out.printf("latence ms : p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0));
+        System.exit(0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.emnanaija.userapi.benchmark;
+
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.validation.AdultFrenchResidentValidator;
+import io.github.emnanaija.userapi.validation.ValidGenderValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des validateurs personnalisés appelés directement (chemin nominal, sans violation)
+ * et de la validation Bean Validation complète d'un UserRequest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private final AdultFrenchResidentValidator adultFrenchResidentValidator = new AdultFrenchResidentValidator();
+    private final ValidGenderValidator validGenderValidator = new ValidGenderValidator();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private UserRequest validRequest;
+    private UserRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = new UserRequest("JeanDupont", LocalDate.of(1990, 5, 15), " France ", "0123456789", "male");
+        invalidRequest = new UserRequest("Carlos", LocalDate.now().minusYears(17), "Spain", "12", "unknown");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // le contexte n'est utilisé que pour signaler une violation : null suffit sur le chemin nominal
+    @Benchmark
+    public boolean adultFrenchResidentIsValid() {
+        return adultFrenchResidentValidator.isValid(validRequest, null);
+    }
+
+    @Benchmark
+    public boolean validGenderIsValid() {
+        return validGenderValidator.isValid(validRequest, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
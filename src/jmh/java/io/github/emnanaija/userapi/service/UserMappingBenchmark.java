@@ -0,0 +1,44 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.entity.UserEntity;
+import io.github.emnanaija.userapi.enums.Gender;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping UserEntity -> UserResponse (UserService.toResponse).
+ * Placé dans le package service pour accéder à la méthode de visibilité package.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private UserService userService;
+    private UserEntity entity;
+
+    @Setup
+    public void setUp() {
+        UserApiProperties properties = new UserApiProperties();
+        userService = new UserService(null, null, properties, new UsernameBloomFilter(properties), null, null);
+        entity = new UserEntity();
+        entity.setId(1L);
+        entity.setUserName("JeanDupont");
+        entity.setBirthDate(LocalDate.of(1990, 5, 15));
+        entity.setCountry("France");
+        entity.setPhoneNumber("0123456789");
+        entity.setGender(Gender.MALE);
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return userService.toResponse(entity);
+    }
+}
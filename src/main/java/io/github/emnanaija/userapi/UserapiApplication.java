@@ -1,9 +1,18 @@
 package io.github.emnanaija.userapi;
 
+import io.github.emnanaija.userapi.config.UserApiRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableCaching
+@EnableScheduling
+@ImportRuntimeHints(UserApiRuntimeHints.class)
 public class UserapiApplication {
 
 	public static void main(String[] args) {
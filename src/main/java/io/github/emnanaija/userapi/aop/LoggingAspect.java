@@ -1,14 +1,32 @@
 package io.github.emnanaija.userapi.aop;
 
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.exception.DuplicateResourceException;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyInProgressException;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyMismatchException;
+import io.github.emnanaija.userapi.exception.InvalidRequestException;
+import io.github.emnanaija.userapi.exception.ResourceNotFoundException;
+import io.github.emnanaija.userapi.exception.VersionMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
@@ -16,6 +34,27 @@ public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
+    static final String TIMER_NAME = "userapi.method.duration";
+
+    // erreurs attendues, traduites en 4xx et déjà journalisées (avec limitation) par GlobalExceptionHandler
+    private static final List<Class<? extends Exception>> BUSINESS_EXCEPTIONS = List.of(
+            ResourceNotFoundException.class, DuplicateResourceException.class, VersionMismatchException.class,
+            InvalidRequestException.class, IdempotencyKeyMismatchException.class,
+            IdempotencyKeyInProgressException.class, IllegalArgumentException.class,
+            OptimisticLockingFailureException.class, DataIntegrityViolationException.class);
+
+    private final UserApiProperties.Tracing.Mode mode;
+    private final double sampleRate;
+    private final MeterRegistry meterRegistry;
+    // un Timer par méthode, créé au premier appel tracé
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public LoggingAspect(UserApiProperties properties, MeterRegistry meterRegistry) {
+        this.mode = properties.getTracing().getMode();
+        this.sampleRate = properties.getTracing().getSampleRate();
+        this.meterRegistry = meterRegistry;
+    }
+
     // Pointcut pour tous les contrôleurs
     @Pointcut("execution(* io.github.emnanaija.userapi.controller.*.*(..))")
     public void controllerMethods() {}
@@ -24,48 +63,96 @@ public class LoggingAspect {
     @Pointcut("execution(* io.github.emnanaija.userapi.service.*.*(..))")
     public void serviceMethods() {}
 
-    // Pointcut pour le gestionnaire d'exceptions
-    @Pointcut("execution(* io.github.emnanaija.userapi.exception.*.*(..))")
-    public void exceptionHandlerMethods() {}
-
-    // Pointcut combiné : contrôleurs, services et gestionnaire d'exceptions
-    @Pointcut("controllerMethods() || serviceMethods() || exceptionHandlerMethods()")
+    // Pointcut combiné : contrôleurs et services. Le gestionnaire d'exceptions n'est pas tracé :
+    // il journalise déjà chaque erreur avec limitation, deux lignes INFO par 4xx inonderaient les logs
+    @Pointcut("controllerMethods() || serviceMethods()")
     public void applicationMethods() {}
 
     @Around("applicationMethods()")
     public Object logMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
-
-        // Log avant l'exécution
-        logger.info(">>> Appel de méthode: {}.{}() avec arguments: {}", 
-                className, methodName, Arrays.toString(args));
+        // Chemin rapide : aucun formatage, aucune mesure, aucune allocation de notre part
+        if (mode == UserApiProperties.Tracing.Mode.OFF) {
+            return joinPoint.proceed();
+        }
+        if (mode == UserApiProperties.Tracing.Mode.SAMPLED
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        return trace(joinPoint, mode == UserApiProperties.Tracing.Mode.FULL);
+    }
 
-        long startTime = System.currentTimeMillis();
+    private Object trace(ProceedingJoinPoint joinPoint, boolean full) throws Throwable {
+        // en mode FULL on garde les traces INFO historiques, sinon elles passent en DEBUG
+        boolean logEnabled = full ? logger.isInfoEnabled() : logger.isDebugEnabled();
+        if (logEnabled) {
+            // Log avant l'exécution (arguments formatés seulement si le niveau est actif)
+            log(full, ">>> Appel de méthode: {}.{}() avec arguments: {}",
+                    className(joinPoint), joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        }
 
+        long start = System.nanoTime();
         try {
             // Exécution de la méthode
             Object result = joinPoint.proceed();
 
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            // Log après l'exécution réussie
-            logger.info("<<< Méthode {}.{}() exécutée avec succès en {} ms. Résultat: {}", 
-                    className, methodName, executionTime, result != null ? result.toString() : "null");
-
+            if (logEnabled) {
+                // Log après l'exécution réussie
+                log(full, "<<< Méthode {}.{}() exécutée avec succès en {} ms. Résultat: {}",
+                        className(joinPoint), joinPoint.getSignature().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), String.valueOf(result));
+            }
             return result;
 
         } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            // Log en cas d'erreur
-            logger.error("!!! Erreur dans {}.{}() après {} ms: {}", 
-                    className, methodName, executionTime, e.getMessage(), e);
+            // Log en cas d'erreur : pile complète seulement pour les erreurs inattendues
+            if (isBusinessException(e)) {
+                logger.debug("!!! {} dans {}.{}() après {} ms: {}", e.getClass().getSimpleName(),
+                        className(joinPoint), joinPoint.getSignature().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e.getMessage());
+            } else {
+                logger.error("!!! Erreur dans {}.{}() après {} ms: {}",
+                        className(joinPoint), joinPoint.getSignature().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e.getMessage(), e);
+            }
 
             throw e;
+        } finally {
+            timer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-}
 
+    private static boolean isBusinessException(Exception e) {
+        for (Class<? extends Exception> type : BUSINESS_EXCEPTIONS) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> Timer.builder(TIMER_NAME)
+                    .description("Durée d'exécution des méthodes tracées par LoggingAspect")
+                    .tag("class", className(joinPoint))
+                    .tag("method", m.getName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
 
+    private static String className(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getTarget().getClass().getSimpleName();
+    }
+
+    private static void log(boolean full, String format, Object... args) {
+        if (full) {
+            logger.info(format, args);
+        } else {
+            logger.debug(format, args);
+        }
+    }
+}
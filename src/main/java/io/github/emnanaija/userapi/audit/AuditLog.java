@@ -0,0 +1,252 @@
+package io.github.emnanaija.userapi.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit asynchrone des créations d'utilisateur.
+ * Le chemin de la requête ne paie qu'une mise en file (file non bloquante, bornée par un compteur) ;
+ * un thread dédié vide la file par lots vers des segments projetés en mémoire
+ * (voir {@link AuditSegmentWriter}) et applique la politique de fsync configurée.
+ * File pleine : le producteur attend au plus offer-timeout (BLOCK) ou l'événement est abandonné (DROP).
+ * Si le thread d'écriture s'est arrêté (erreur ou arrêt du contexte), les événements sont abandonnés
+ * sans attente ; userapi.audit.writer.alive passe alors à 0.
+ */
+@Component
+@ConditionalOnProperty(prefix = "userapi.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    // attente du thread d'écriture quand la file est vide (réveillé plus tôt par les producteurs)
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final UserApiProperties.Audit config;
+    private final ObjectWriter eventWriter;
+    private final Queue<UserCreated> queue = new ConcurrentLinkedQueue<>();
+    // places réservées dans la file : la borne sans verrou de ConcurrentLinkedQueue
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer fsyncTimer;
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile WriterState writerState = WriterState.NEW;
+    private Thread writer;
+
+    public AuditLog(UserApiProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = properties.getAudit();
+        this.eventWriter = objectMapper.writerFor(UserCreated.class);
+        this.written = Counter.builder("userapi.audit.events.written").register(meterRegistry);
+        this.dropped = Counter.builder("userapi.audit.events.dropped")
+                .description("Événements d'audit abandonnés (file pleine ou écriture arrêtée)")
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("userapi.audit.fsync").register(meterRegistry);
+        meterRegistry.gauge("userapi.audit.queue.size", size);
+        Gauge.builder("userapi.audit.writer.alive", this, audit -> audit.writerState == WriterState.FAILED ? 0 : 1)
+                .description("1 tant que le thread d'écriture du journal d'audit n'a pas échoué")
+                .register(meterRegistry);
+    }
+
+
+    // après le commit : une création annulée n'est pas auditée
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreated event) {
+        offer(event);
+    }
+
+
+    public boolean offer(UserCreated event) {
+        WriterState state = writerState;
+        if (state == WriterState.FAILED || state == WriterState.STOPPED) {
+            // plus personne ne vide la file : ni mise en file ni attente de place
+            dropped.increment();
+            logger.debug("Journal d'audit arrêté, événement abandonné pour l'utilisateur {}", event.id());
+            return false;
+        }
+        if (!tryReserve() && !(config.getOverflow() == UserApiProperties.Audit.Overflow.BLOCK && awaitCapacity())) {
+            dropped.increment();
+            logger.warn("!!! File d'audit pleine, événement abandonné pour l'utilisateur {}", event.id());
+            return false;
+        }
+        queue.offer(event);
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerState = WriterState.RUNNING;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+
+    @Override
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            current = writer;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    int queued() {
+        return size.get();
+    }
+
+
+    boolean isWriterAlive() {
+        return writerState != WriterState.FAILED;
+    }
+
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= config.getQueueCapacity()) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+
+    private boolean awaitCapacity() {
+        long deadline = System.nanoTime() + config.getOfferTimeout().toNanos();
+        while (System.nanoTime() - deadline < 0 && writerState != WriterState.FAILED) {
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            if (tryReserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    // à l'arrêt, la file est vidée avant la fermeture du segment
+    private void writeLoop() {
+        UserApiProperties.Audit.Fsync fsync = config.getFsync();
+        long fsyncIntervalNanos = config.getFsyncInterval().toNanos();
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        // retirés de la file mais pas encore décomptés de size : perdus si l'écriture échoue
+        int inFlight = 0;
+        try (AuditSegmentWriter segments = new AuditSegmentWriter(
+                config.getDirectory(), (int) config.getSegmentSize().toBytes())) {
+            while (running || size.get() > 0) {
+                int drained = 0;
+                UserCreated event;
+                while (drained < config.getBatchSize() && (event = queue.poll()) != null) {
+                    inFlight++;
+                    segments.append(encode(event));
+                    drained++;
+                }
+                if (drained > 0) {
+                    size.addAndGet(-drained);
+                    inFlight = 0;
+                    written.increment(drained);
+                    dirty = true;
+                }
+
+                long now = System.nanoTime();
+                if (dirty && (fsync == UserApiProperties.Audit.Fsync.EVERY_BATCH
+                        || (fsync == UserApiProperties.Audit.Fsync.INTERVAL && now - lastForce >= fsyncIntervalNanos))) {
+                    fsyncTimer.record(segments::force);
+                    lastForce = now;
+                    dirty = false;
+                }
+
+                if (drained == 0 && running) {
+                    // un producteur peut passer entre le test de la file et le park :
+                    // l'événement attend alors au plus IDLE_PARK_NANOS
+                    idle = true;
+                    if (queue.isEmpty()) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    idle = false;
+                }
+            }
+            writerState = WriterState.STOPPED;
+        } catch (Exception e) {
+            // IOException du segment comme RuntimeException de l'encodage : le thread ne meurt pas en silence
+            writerState = WriterState.FAILED;
+            running = false;
+            int lost = discardQueued(inFlight);
+            logger.error("!!! Écriture du journal d'audit interrompue, {} événements en file abandonnés", lost, e);
+        }
+    }
+
+
+    private int discardQueued(int inFlight) {
+        int lost = inFlight;
+        while (queue.poll() != null) {
+            lost++;
+        }
+        size.addAndGet(-lost);
+        dropped.increment(lost);
+        return lost;
+    }
+
+
+    private byte[] encode(UserCreated event) throws IOException {
+        byte[] json = eventWriter.writeValueAsBytes(event);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+
+    private enum WriterState {
+        NEW,
+        RUNNING,
+        FAILED,
+        STOPPED
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.emnanaija.userapi.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Écriture en ajout seul dans des segments audit-NNNNNN.log de taille fixe, projetés en mémoire.
+ * Un nouveau segment est ouvert quand le courant est plein ; à la fermeture, le fichier est
+ * tronqué à la partie écrite. N'est utilisé que par le thread d'écriture de {@link AuditLog}.
+ */
+final class AuditSegmentWriter implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d+)\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    AuditSegmentWriter(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        // on ne reprend jamais un segment existant : le redémarrage ouvre le suivant
+        this.segmentIndex = lastSegmentIndex(directory);
+        roll();
+    }
+
+    void append(byte[] record) throws IOException {
+        if (record.length > segmentSize) {
+            throw new IOException("Enregistrement d'audit plus grand qu'un segment (" + record.length + " octets)");
+        }
+        if (buffer.remaining() < record.length) {
+            roll();
+        }
+        buffer.put(record);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    private void roll() throws IOException {
+        closeSegment();
+        segmentIndex++;
+        Path segment = directory.resolve(String.format("audit-%06d.log", segmentIndex));
+        channel = FileChannel.open(segment, CREATE_NEW, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        channel.truncate(buffer.position());
+        channel.close();
+        channel = null;
+    }
+
+    private static int lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+                    .max()
+                    .orElse(0);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.emnanaija.userapi.audit;
+
+import java.time.Instant;
+
+// événement publié après chaque création d'utilisateur (journal d'audit)
+public record UserCreated(Long id, String username, Instant createdAt) {
+}
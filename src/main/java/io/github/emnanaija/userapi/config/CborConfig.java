@@ -0,0 +1,28 @@
+package io.github.emnanaija.userapi.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Format binaire CBOR (application/cbor) pour les appelants internes, négocié par Accept / Content-Type.
+ * Le convertisseur prend la place du CBOR par défaut, après le JSON : sans en-tête explicite,
+ * les clients reçoivent toujours du JSON.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CborConfig {
+
+    // même configuration que le JSON (modules, propriétés spring.jackson.*), sauf les dates :
+    // un LocalDate part en tableau d'entiers [aaaa, m, j] plutôt qu'en chaîne ISO à formater
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.emnanaija.userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class MetricsConfig {
+
+    // active la prise en compte de @Timed sur les beans Spring (ex: UserService)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // part des connexions du pool empruntées (1 = pool saturé, les appelants attendent) ;
+    // complète hikaricp.connections.pending et l'histogramme hikaricp.connections.acquire
+    @Bean
+    public MeterBinder poolSaturationMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = unwrapHikari(dataSource);
+            if (hikari != null) {
+                Gauge.builder("userapi.db.pool.saturation", hikari, MetricsConfig::saturation)
+                        .tag("pool", hikari.getPoolName())
+                        .description("Connexions actives / taille maximale du pool")
+                        .register(registry);
+            }
+        });
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        // le pool n'est créé qu'à la première connexion demandée
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.emnanaija.userapi.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Accès R2DBC de la variante WebFlux, derrière un pool de connexions. Ni le ConnectionFactory
+ * ni le R2dbcTransactionManager ne sont exposés comme beans : Spring Boot désactiverait la
+ * DataSource JDBC utilisée par JPA, et @Transactional trouverait deux gestionnaires de transactions.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDataConfig {
+
+    @Bean
+    public ReactiveConnectionPool reactiveConnectionPool(UserApiProperties properties) {
+        UserApiProperties.Reactive reactive = properties.getReactive();
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(reactive.getR2dbcUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, reactive.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, reactive.getPassword())
+                .build();
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("userapi-r2dbc")
+                .initialSize(reactive.getPoolInitialSize())
+                .maxSize(reactive.getPoolMaxSize())
+                .maxIdleTime(reactive.getPoolMaxIdleTime())
+                .maxAcquireTime(reactive.getPoolMaxAcquireTime())
+                .build();
+        return new ReactiveConnectionPool(new ConnectionPool(configuration));
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ReactiveConnectionPool pool) {
+        return DatabaseClient.create(pool.connections());
+    }
+
+    // transactions R2DBC explicites (utilisateur + événement d'outbox), sans toucher à @Transactional
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ReactiveConnectionPool pool) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(pool.connections()));
+    }
+
+
+    /**
+     * Porte le pool sans l'exposer sous le type ConnectionFactory ; le ferme à l'arrêt du contexte.
+     */
+    public static final class ReactiveConnectionPool implements DisposableBean {
+
+        private final ConnectionPool connections;
+
+        ReactiveConnectionPool(ConnectionPool connections) {
+            this.connections = connections;
+        }
+
+        public ConnectionPool connections() {
+            return connections;
+        }
+
+        @Override
+        public void destroy() {
+            connections.dispose();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.emnanaija.userapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paramètres applicatifs regroupés sous le préfixe "userapi".
+ */
+@Data
+@ConfigurationProperties(prefix = "userapi")
+public class UserApiProperties {
+
+    private Batch batch = new Batch();
+    private Tracing tracing = new Tracing();
+    private Listing listing = new Listing();
+    private UsernameFilter usernameFilter = new UsernameFilter();
+    private Reactive reactive = new Reactive();
+    private Idempotency idempotency = new Idempotency();
+    private Audit audit = new Audit();
+    private Outbox outbox = new Outbox();
+    private RateLimit rateLimit = new RateLimit();
+    private ResponseCache responseCache = new ResponseCache();
+    private Warmup warmup = new Warmup();
+    private Purge purge = new Purge();
+    private Errors errors = new Errors();
+
+    @Data
+    public static class Batch {
+        // nombre d'entités insérées (et flushées) par lot JDBC
+        private int chunkSize = 500;
+        // nombre maximum d'éléments acceptés par requête d'import
+        private int maxItems = 50_000;
+    }
+
+    @Data
+    public static class Listing {
+        private int defaultPageSize = 100;
+        private int maxPageSize = 1000;
+    }
+
+    @Data
+    public static class UsernameFilter {
+        // dimensionnement du filtre de Bloom des noms d'utilisateur
+        private long expectedInsertions = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class Idempotency {
+        // durée pendant laquelle une réponse peut être rejouée pour une même Idempotency-Key
+        private Duration ttl = Duration.ofHours(24);
+        private long maxEntries = 100_000;
+        // attente maximale d'un doublon concurrent sur la première requête, ensuite 409
+        private Duration waitTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Audit {
+        private boolean enabled = true;
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "userapi-audit");
+        private int queueCapacity = 65_536;
+        // nombre maximum d'événements écrits entre deux vérifications de la politique de fsync
+        private int batchSize = 512;
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private Fsync fsync = Fsync.INTERVAL;
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+        private Overflow overflow = Overflow.BLOCK;
+        // attente maximale d'un producteur quand la file est pleine (mode BLOCK)
+        private Duration offerTimeout = Duration.ofMillis(50);
+
+        public enum Fsync {
+            EVERY_BATCH,
+            INTERVAL,
+            NONE
+        }
+
+        public enum Overflow {
+            BLOCK,
+            DROP
+        }
+    }
+
+    @Data
+    public static class Outbox {
+        private boolean enabled = true;
+        // événements réservés et publiés par transaction
+        private int batchSize = 500;
+        // échecs d'un même événement avant de le passer en DEAD
+        private int maxAttempts = 10;
+        // délai avant le nouvel essai d'un événement refusé, doublé à chaque échec jusqu'au plafond
+        private Duration retryBackoff = Duration.ofSeconds(1);
+        private Duration maxRetryBackoff = Duration.ofMinutes(10);
+        // fichier du sink par défaut (FileOutboxSink)
+        private Path file = Path.of(System.getProperty("java.io.tmpdir"), "userapi-outbox.ndjson");
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        // en-tête identifiant l'appelant, lu seulement sur les requêtes venant d'un proxy de confiance ;
+        // sinon (et à défaut d'en-tête) l'adresse IP : un client qui change de valeur à chaque requête
+        // repartirait avec une rafale pleine et évincerait l'état des autres clients
+        private String clientHeader = "X-Client-Id";
+        // adresses IP exactes des passerelles authentifiées qui posent l'en-tête ; vide : en-tête ignoré
+        private Set<String> trustedProxies = new HashSet<>();
+        private long maxClients = 100_000;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        // clés : create-user, create-users, get-user, update-user (PUT, PATCH, DELETE), list-users,
+        // search-users, export-users
+        private Map<String, EndpointLimit> endpoints = new HashMap<>();
+
+        @Data
+        public static class EndpointLimit {
+            // débit soutenu par client et taille de rafale ; 0 = pas de limite de débit
+            private double permitsPerSecond;
+            private int burst = 1;
+            // requêtes simultanées sur l'endpoint, tous clients confondus ; 0 = pas de limite
+            private int maxConcurrent;
+        }
+    }
+
+    @Data
+    public static class ResponseCache {
+        // corps JSON pré-sérialisés de GET /api/users/{id}
+        private boolean enabled = true;
+        private long maxEntries = 10_000;
+    }
+
+    @Data
+    public static class Purge {
+        private boolean enabled = true;
+        // délai avant la suppression définitive d'un utilisateur supprimé logiquement
+        private Duration retention = Duration.ofHours(24);
+        // lignes supprimées par transaction
+        private int batchSize = 500;
+        // pause entre deux lots, pour laisser passer le trafic
+        private Duration pause = Duration.ofMillis(100);
+        // au-delà, la suite attend le passage suivant
+        private int maxBatchesPerRun = 200;
+    }
+
+    @Data
+    public static class Errors {
+        // au plus un message journalisé par type d'erreur et par intervalle, les suivants sont comptés
+        private Duration logInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Warmup {
+        // utilisateurs les plus récents chargés dans les caches au démarrage (0 : désactivé)
+        private int users = 0;
+        private int pageSize = 1000;
+    }
+
+    @Data
+    public static class Reactive {
+        // base accédée par la variante WebFlux (profil reactive)
+        private String r2dbcUrl = "r2dbc:h2:mem:///testdb";
+        private String username = "sa";
+        private String password = "";
+        // pool r2dbc-pool devant le pilote : sans lui, chaque requête ouvre et ferme sa connexion
+        private int poolInitialSize = 4;
+        private int poolMaxSize = 16;
+        private Duration poolMaxIdleTime = Duration.ofMinutes(30);
+        private Duration poolMaxAcquireTime = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Tracing {
+        private Mode mode = Mode.FULL;
+        // proportion des appels tracés en mode SAMPLED (0.0 à 1.0)
+        private double sampleRate = 0.01;
+
+        public enum Mode {
+            // journalise chaque appel (arguments, résultat, durée) et alimente l'histogramme
+            FULL,
+            // alimente l'histogramme pour un échantillon d'appels, journalisation en DEBUG seulement
+            SAMPLED,
+            // aucun traçage : simple appel de la méthode cible
+            OFF
+        }
+    }
+}
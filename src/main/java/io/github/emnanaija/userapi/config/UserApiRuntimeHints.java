@@ -0,0 +1,53 @@
+package io.github.emnanaija.userapi.config;
+
+import io.github.emnanaija.userapi.aop.LoggingAspect;
+import io.github.emnanaija.userapi.audit.UserCreated;
+import io.github.emnanaija.userapi.dto.BatchUserResponse;
+import io.github.emnanaija.userapi.dto.UserPage;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.dto.UserVersion;
+import io.github.emnanaija.userapi.validation.AdultFrenchResident;
+import io.github.emnanaija.userapi.validation.AdultFrenchResidentValidator;
+import io.github.emnanaija.userapi.validation.ValidGender;
+import io.github.emnanaija.userapi.validation.ValidGenderValidator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Réflexion non détectée par l'analyse AOT de Spring (profils native et aot) :
+ * DTO Lombok sérialisés hors des contrôleurs ou construits par les projections JPQL,
+ * validateurs instanciés par Hibernate Validator et méthodes de LoggingAspect.
+ */
+public class UserApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Jackson : ObjectWriter dédiés (export NDJSON, corps pré-sérialisés, audit, outbox) et binding @ModelAttribute
+        bindingHints.registerReflectionHints(hints.reflection(),
+                UserRequest.class, UserResponse.class, BatchUserResponse.class, UserPage.class,
+                UserSearchCriteria.class, UserVersion.class, UserCreated.class);
+
+        // select new ...UserResponse(...) / UserVersion(...) et cb.construct
+        hints.reflection().registerType(UserResponse.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(UserVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // contraintes lues et validateurs instanciés par réflexion
+        hints.reflection().registerType(AdultFrenchResident.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(ValidGender.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(AdultFrenchResidentValidator.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(ValidGenderValidator.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.proxies().registerJdkProxy(AdultFrenchResident.class);
+        hints.proxies().registerJdkProxy(ValidGender.class);
+
+        // conseils @Around et @Pointcut résolus par réflexion par Spring AOP
+        hints.reflection().registerType(LoggingAspect.class, MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.emnanaija.userapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Signale au démarrage que spring.threads.virtual.enabled est ignoré
+ * (Spring Boot ne bascule sur les threads virtuels qu'à partir de Java 21).
+ * Points vérifiés pour l'épinglage (pinning) : LoggingAspect et UsernameBloomFilter
+ * n'utilisent pas de bloc synchronized autour d'I/O, et le cache "users" n'utilise
+ * pas @Cacheable(sync = true) qui chargerait la valeur sous verrou.
+ * À contrôler en charge avec -Djdk.tracePinnedThreads=short.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    public VirtualThreadsConfig(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Threads virtuels actifs pour les requêtes HTTP et les tâches asynchrones");
+        } else {
+            logger.warn("spring.threads.virtual.enabled=true ignoré : Java {} détecté, Java 21 requis",
+                    Runtime.version().feature());
+        }
+    }
+}
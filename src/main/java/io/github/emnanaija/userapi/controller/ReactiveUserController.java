@@ -0,0 +1,66 @@
+package io.github.emnanaija.userapi.controller;
+
+import io.github.emnanaija.userapi.dto.UserPage;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.service.IdempotencyStore;
+import io.github.emnanaija.userapi.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Même contrat HTTP que UserController, servi par WebFlux (profil "reactive").
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final IdempotencyStore idempotencyStore;
+
+    public ReactiveUserController(ReactiveUserService userService, IdempotencyStore idempotencyStore) {
+        this.userService = userService;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+
+    @PostMapping
+    public Mono<ResponseEntity<UserResponse>> createUser(@Valid @RequestBody Mono<UserRequest> request,
+                                                         @RequestHeader(name = UserController.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return request.flatMap(userService::createUser)
+                    .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+        }
+        // même contrat que UserController : rejeu de la réponse stockée, 422 si le corps diffère
+        return request.flatMap(body -> idempotencyStore.executeReactive(idempotencyKey, body,
+                        () -> userService.createUser(body)))
+                .map(outcome -> ResponseEntity.status(HttpStatus.CREATED)
+                        .header(UserController.IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                        .body(outcome.value()));
+    }
+
+
+    @GetMapping("/{id}")
+    public Mono<UserResponse> getUser(@PathVariable Long id) {
+        return userService.getUser(id);
+    }
+
+
+    @GetMapping
+    public Mono<UserPage> listUsers(@RequestParam(required = false) Long afterId,
+                                    @RequestParam(required = false) Integer size) {
+        return userService.listUsers(afterId, size);
+    }
+
+
+    @GetMapping(value = "/export", produces = UserController.NDJSON)
+    public Flux<UserResponse> exportUsers() {
+        return userService.exportUsers();
+    }
+}
@@ -2,35 +2,252 @@ package io.github.emnanaija.userapi.controller;
 
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.emnanaija.userapi.dto.BatchUserResponse;
+import io.github.emnanaija.userapi.dto.UserPage;
 import io.github.emnanaija.userapi.dto.UserRequest;
 import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.dto.UserVersion;
+import io.github.emnanaija.userapi.exception.VersionMismatchException;
+import io.github.emnanaija.userapi.service.IdempotencyStore;
 import io.github.emnanaija.userapi.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
+    private final UserResponseBytesCache responseBytesCache;
+    // pas de flush après chaque ligne exportée : le tampon de la réponse s'en charge
+    private final ObjectWriter exportWriter;
+    // applique un patch sur un UserRequest existant : champs absents conservés, null explicite appliqué
+    private final ObjectReader patchReader;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, IdempotencyStore idempotencyStore,
+                          UserResponseBytesCache responseBytesCache, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.idempotencyStore = idempotencyStore;
+        this.responseBytesCache = responseBytesCache;
+        this.exportWriter = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.patchReader = objectMapper.readerFor(UserRequest.class);
     }
 
 
     @PostMapping
-    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest request) {
-        UserResponse response = userService.createUser(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest request,
+                                                   @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            UserResponse response = userService.createUser(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        }
+        // rejeu d'un client (timeout, retry) : la réponse stockée est renvoyée sans toucher au service
+        IdempotencyStore.Outcome<UserResponse> outcome =
+                idempotencyStore.execute(idempotencyKey, request, () -> userService.createUser(request));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .body(outcome.value());
+    }
+
+
+    // import en masse : chaque élément est validé individuellement par le service
+    @PostMapping("/batch")
+    public ResponseEntity<BatchUserResponse> createUsers(@RequestBody List<UserRequest> requests) {
+        BatchUserResponse response = userService.createUsers(requests);
+        HttpStatus status;
+        if (response.getRejected() == 0) {
+            status = HttpStatus.CREATED;
+        } else if (response.getCreated() == 0) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            status = HttpStatus.MULTI_STATUS;
+        }
+        return new ResponseEntity<>(response, status);
     }
 
 
+    // GET conditionnel : si le client présente un validateur, il est comparé à l'index
+    // id -> version sans charger ni sérialiser l'utilisateur
+    // sinon, pour un client JSON, les octets déjà sérialisés (voire compressés) sont renvoyés tels quels
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUser(@PathVariable Long id) {
+    public ResponseEntity<?> getUser(@PathVariable Long id, WebRequest webRequest) {
+        boolean conditional = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        boolean preSerialized = responseBytesCache.isEnabled() && prefersJson(webRequest);
+        UserVersion version = conditional || preSerialized ? userService.getUserVersion(id) : null;
+        if (conditional
+                && webRequest.checkNotModified(etag(version.getVersion()), version.getLastModified().toEpochMilli())) {
+            return null;
+        }
+
+        if (preSerialized) {
+            UserResponseBytesCache.Entry entry =
+                    responseBytesCache.get(id, version.getVersion(), () -> userService.getUser(id));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .eTag(etag(entry.version()))
+                    .lastModified(entry.lastModified())
+                    .body(entry.json());
+        }
+
         UserResponse response = userService.getUser(id);
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (response.getVersion() != null) {
+            builder.eTag(etag(response.getVersion()));
+        }
+        if (response.getLastModified() != null) {
+            builder.lastModified(response.getLastModified());
+        }
+        return builder.body(response);
+    }
+
+
+    // If-Match facultatif : s'il est présent, la mise à jour n'a lieu que sur cette version (sinon 412)
+    @PutMapping("/{id}")
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest request,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withValidators(userService.updateUser(id, request, expectedVersion(ifMatch)));
+    }
+
+
+    // JSON Merge Patch (RFC 7396) : un champ absent est inchangé, null efface un champ facultatif
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<UserResponse> patchUser(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Le patch doit être un objet JSON");
+        }
+        return withValidators(userService.patchUser(id, current -> merge(current, patch), expectedVersion(ifMatch)));
+    }
+
+
+    // suppression logique (RGPD) ; la purge définitive est faite en tâche de fond
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.deleteUser(id, expectedVersion(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
+
+    private UserRequest merge(UserRequest current, JsonNode patch) {
+        try {
+            return patchReader.withValueToUpdate(current).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Patch invalide : " + e.getMessage());
+        }
+    }
+
+
+    private static ResponseEntity<UserResponse> withValidators(UserResponse response) {
+        return ResponseEntity.ok()
+                .eTag(etag(response.getVersion()))
+                .lastModified(response.getLastModified())
+                .body(response);
+    }
+
+
+    // ETag fort "<version>" (ou *) ; un validateur faible ou illisible ne correspond à aucune version
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // traité comme une version inconnue
+            }
+        }
+        throw new VersionMismatchException("If-Match ne correspond à aucune version de l'utilisateur");
+    }
+
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+
+    // JSON est le type retenu par la négociation (Accept absent, */* ou application/json en tête)
+    private static boolean prefersJson(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(acceptable);
+            return !acceptable.isEmpty() && acceptable.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+
+    // pagination par clé : passer nextCursor de la page précédente en afterId
+    @GetMapping
+    public ResponseEntity<UserPage> listUsers(@RequestParam(required = false) Long afterId,
+                                              @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.listUsers(afterId, size));
+    }
+
+
+    // recherche multicritère (country, gender, birthDateFrom/To, usernamePrefix), paginée comme le listing
+    @GetMapping("/search")
+    public ResponseEntity<UserPage> searchUsers(@ModelAttribute UserSearchCriteria criteria,
+                                                @RequestParam(required = false) Long afterId,
+                                                @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.searchUsers(criteria, afterId, size));
+    }
+
+
+    // export NDJSON (un utilisateur par ligne) écrit au fil du curseur base
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = exportWriter.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                userService.exportUsers(user -> {
+                    try {
+                        exportWriter.writeValue(generator, user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok(body);
     }
 }
@@ -0,0 +1,92 @@
+package io.github.emnanaija.userapi.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.service.UserChanged;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Corps JSON de GET /api/users/{id} déjà sérialisés, indexés par id et valables pour une version
+ * donnée : une modification de l'utilisateur change sa version et rend l'entrée obsolète, et
+ * l'entrée est retirée au commit de la transaction de UserService qui l'a modifié (UserChanged).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class UserResponseBytesCache {
+
+    private final boolean enabled;
+    private final ObjectWriter writer;
+    private final Cache<Long, Entry> entries;
+
+    UserResponseBytesCache(UserApiProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        UserApiProperties.ResponseCache config = properties.getResponseCache();
+        this.enabled = config.isEnabled();
+        this.writer = objectMapper.writerFor(UserResponse.class);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .recordStats()
+                .build();
+        // mêmes clés de tags que les caches Spring : Prometheus refuse sinon l'un des deux enregistrements
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "userResponseBytes", "cache.manager", "none", "name", "userResponseBytes");
+    }
+
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+
+    Entry get(Long id, Long version, Supplier<UserResponse> loader) {
+        Entry entry = entries.getIfPresent(id);
+        if (entry != null && Objects.equals(entry.version(), version)) {
+            return entry;
+        }
+        UserResponse response = loader.get();
+        Entry fresh = serialize(response);
+        // la réponse chargée peut venir d'un cache en retard sur l'index des versions : on ne la garde pas
+        if (Objects.equals(response.getVersion(), version)) {
+            entries.put(id, fresh);
+        }
+        return fresh;
+    }
+
+
+    // après le commit seulement : évincée avant, l'entrée pourrait être reconstruite depuis l'ancienne ligne
+    // par un GET concurrent (y compris pour un utilisateur supprimé)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChanged event) {
+        evict(event.id());
+    }
+
+
+    void evict(Long id) {
+        entries.invalidate(id);
+    }
+
+
+    private Entry serialize(UserResponse response) {
+        try {
+            return new Entry(response.getVersion(), response.getLastModified(), writer.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de l'utilisateur impossible", e);
+        }
+    }
+
+
+    record Entry(Long version, Instant lastModified, byte[] json) {
+    }
+}
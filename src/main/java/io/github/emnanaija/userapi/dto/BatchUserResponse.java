@@ -0,0 +1,30 @@
+package io.github.emnanaija.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserResponse {
+
+    private int created;
+    private int rejected;
+    private List<UserResponse> users;
+    private List<ItemError> errors;
+
+    /**
+     * Erreurs de validation d'un élément, repéré par sa position dans le lot.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private Map<String, String> errors;
+    }
+}
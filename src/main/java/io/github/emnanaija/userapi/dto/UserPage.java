@@ -0,0 +1,20 @@
+package io.github.emnanaija.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page d'utilisateurs triés par id. {@code nextCursor} est la valeur à passer en
+ * {@code afterId} pour obtenir la page suivante (null sur la dernière page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+
+    private List<UserResponse> items;
+    private Long nextCursor;
+}
@@ -1,22 +1,26 @@
 package io.github.emnanaija.userapi.dto;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.emnanaija.userapi.enums.Gender;
 import io.github.emnanaija.userapi.validation.AdultFrenchResident;
 import io.github.emnanaija.userapi.validation.ValidGender;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @AdultFrenchResident
+@ValidGender
 public class UserRequest {
 
     @NotBlank(message = "username obligatoire")
@@ -32,6 +36,25 @@ public class UserRequest {
     @Pattern(regexp = "^(0\\d{9}|\\+33\\d{9})$", message = "Numéro français invalide")
     private String phone;
 
-    @ValidGender
     private String gender;
+
+    // genre analysé une seule fois, à l'affectation, puis relu par @ValidGender et le service ; null si absent ou invalide
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Gender parsedGender;
+
+    public UserRequest(String username, LocalDate birthdate, String country, String phone, String gender) {
+        this.username = username;
+        this.birthdate = birthdate;
+        this.country = country;
+        this.phone = phone;
+        setGender(gender);
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+        this.parsedGender = Gender.parse(gender);
+    }
 }
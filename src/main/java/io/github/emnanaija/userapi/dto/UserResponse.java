@@ -1,9 +1,12 @@
 package io.github.emnanaija.userapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.emnanaija.userapi.enums.Gender;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -17,4 +20,24 @@ public class UserResponse {
     private String country;
     private String phone;
     private String gender;
+
+    // métadonnées de cache HTTP (ETag / Last-Modified), hors du corps JSON
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
+
+    public UserResponse(Long id, String username, LocalDate birthdate, String country, String phone, String gender) {
+        this(id, username, birthdate, country, phone, gender, null, null);
+    }
+
+    // constructeurs des projections JPQL (select new ...) : le genre y arrive sous forme d'enum
+    public UserResponse(Long id, String username, LocalDate birthdate, String country, String phone, Gender gender) {
+        this(id, username, birthdate, country, phone, gender, null, null);
+    }
+
+    public UserResponse(Long id, String username, LocalDate birthdate, String country, String phone, Gender gender,
+                        Long version, Instant lastModified) {
+        this(id, username, birthdate, country, phone, gender == null ? null : gender.name(), version, lastModified);
+    }
 }
@@ -0,0 +1,26 @@
+package io.github.emnanaija.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// filtres de GET /api/users/search, tous facultatifs et combinés en ET
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchCriteria {
+
+    private String country;          // insensible à la casse, "FR" équivaut à "France"
+    private String gender;           // MALE, FEMALE, OTHER (insensible à la casse)
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate birthDateFrom; // inclus
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate birthDateTo;   // inclus
+
+    private String usernamePrefix;
+}
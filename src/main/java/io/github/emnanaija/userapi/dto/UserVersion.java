@@ -0,0 +1,17 @@
+package io.github.emnanaija.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// entrée de l'index id -> version : de quoi répondre 304 sans charger l'utilisateur
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserVersion {
+
+    private Long version;
+    private Instant lastModified;
+}
@@ -0,0 +1,60 @@
+package io.github.emnanaija.userapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Événement à publier vers les services en aval, écrit dans la même transaction que
+ * l'entité qu'il décrit ; la ligne est supprimée une fois publiée, ou passe en DEAD après
+ * trop d'échecs (voir OutboxPublisher).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // l'ordre des identifiants est l'ordre de publication
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // corps JSON de l'événement
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // échecs de publication de cet événement seul
+    @Column(nullable = false)
+    private int attempts;
+
+    // null : publiable tout de suite ; sinon pas avant cette date (délai après un échec)
+    private Instant nextAttemptAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    public OutboxEvent(Long id, String eventType, Long aggregateId, String payload, Instant createdAt) {
+        this(id, eventType, aggregateId, payload, createdAt, 0, null, Status.PENDING);
+    }
+
+    public enum Status {
+        PENDING,
+        // mis de côté après userapi.outbox.max-attempts échecs : à corriger puis repasser en PENDING
+        DEAD
+    }
+}
@@ -5,17 +5,35 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+// index de GET /api/users/search : filtre d'égalité en tête, puis l'id du curseur keyset (voir V4)
+@Table(indexes = {
+        @Index(name = "ux_user_entity_user_name", columnList = "userName", unique = true),
+        @Index(name = "ix_user_entity_gender_id", columnList = "gender, id")
+})
+// suppression logique : les lignes supprimées sont exclues de toutes les requêtes JPQL / Criteria
+// et des chargements par id ; seule la purge (SQL natif) les voit encore. Pas d'index sur deleted_at :
+// H2 le préférerait à la clé primaire des pages keyset pour "deleted_at is null"
+@SQLRestriction("deleted_at is null")
+// UPDATE limité aux colonnes modifiées (plus version et lastModified)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserEntity {
 
+    // séquence "pooled" : les identifiants sont réservés par blocs, ce qui permet
+    // à Hibernate de regrouper les INSERT en batch JDBC (impossible avec IDENTITY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,4 +50,16 @@ public class UserEntity {
     @Enumerated(EnumType.STRING)
     private Gender gender;      // facultatif, enum
 
+    // incrémentée à chaque modification : sert d'ETag fort sur GET /api/users/{id}
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant lastModified;
+
+    // null tant que l'utilisateur n'est pas supprimé (DELETE /api/users/{id})
+    private Instant deletedAt;
+
 }
@@ -3,5 +3,34 @@ package io.github.emnanaija.userapi.enums;
 public enum Gender {
     MALE,
     FEMALE,
-    OTHER
+    OTHER;
+
+    private static final Gender[] VALUES = values();
+
+    /**
+     * Équivalent de valueOf(value.trim().toUpperCase()) sans allocation ni exception :
+     * comparaison insensible à la casse avec la table des valeurs.
+     * Retourne null si la valeur est absente ou ne correspond à aucun genre.
+     */
+    public static Gender parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        for (Gender gender : VALUES) {
+            String name = gender.name();
+            if (name.length() == length && value.regionMatches(true, start, name, 0, length)) {
+                return gender;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,7 @@
+package io.github.emnanaija.userapi.exception;
+
+public class DuplicateResourceException extends RuntimeException {
+    public DuplicateResourceException(String message) {
+        super(message);
+    }
+}
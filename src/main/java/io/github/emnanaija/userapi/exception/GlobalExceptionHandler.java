@@ -1,62 +1,194 @@
 package io.github.emnanaija.userapi.exception;
 
 
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Réponses d'erreur au format problem details (voir {@link ProblemBodies}) : corps pré-sérialisés,
+ * compteurs résolus une fois, journalisation limitée à un message par type d'erreur et par intervalle
+ * (userapi.errors.log-interval) ; les compteurs, eux, voient toutes les erreurs.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    static final String VALIDATION_FAILURES = "userapi.validation.failures";
+    static final String NOT_FOUND = "userapi.not.found";
+
+    static final String VALIDATION_DETAIL = "La requête contient des champs invalides";
+    static final String CONCURRENT_UPDATE_DETAIL = "L'utilisateur a été modifié en parallèle, relire puis réessayer";
+    static final String CONSTRAINT_DETAIL = "Conflit avec une donnée existante";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter notFoundCounter;
+    private final Map<String, Counter> validationCounters = new ConcurrentHashMap<>();
+
+    private final LogThrottle validationLog;
+    private final LogThrottle notFoundLog;
+    private final LogThrottle conflictLog;
+    private final LogThrottle preconditionLog;
+    private final LogThrottle badRequestLog;
+    private final LogThrottle unexpectedLog;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry, UserApiProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.notFoundCounter = Counter.builder(NOT_FOUND)
+                .description("Nombre de réponses 404 (ressource introuvable)")
+                .register(meterRegistry);
+        Duration interval = properties.getErrors().getLogInterval();
+        this.validationLog = new LogThrottle(interval);
+        this.notFoundLog = new LogThrottle(interval);
+        this.conflictLog = new LogThrottle(interval);
+        this.preconditionLog = new LogThrottle(interval);
+        this.badRequestLog = new LogThrottle(interval);
+        this.unexpectedLog = new LogThrottle(interval);
+    }
+
     //les validation echouees avec @valid
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidationErrors(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleValidationErrors(MethodArgumentNotValidException ex) {
+        return validationErrors(ex.getBindingResult().getFieldErrors());
+    }
+
+    //les validation echouees avec @valid cote WebFlux (profil reactive) : meme contrat
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<byte[]> handleReactiveValidationErrors(WebExchangeBindException ex) {
+        return validationErrors(ex.getFieldErrors());
+    }
+
+    //les validation echouees dans le service (ex: PATCH revalide apres fusion) : meme contrat
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<byte[]> handleInvalidRequest(InvalidRequestException ex) {
+        return validationErrors(ex.getErrors());
+    }
+
+    private ResponseEntity<byte[]> validationErrors(List<FieldError> fieldErrors) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(err ->
-                errors.put(err.getField(), err.getDefaultMessage())
-        );
-        
+        fieldErrors.forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
+        return validationErrors(errors);
+    }
+
+    private ResponseEntity<byte[]> validationErrors(Map<String, String> errors) {
+        // un compteur par champ en erreur
+        errors.keySet().forEach(field -> validationCounters.computeIfAbsent(field,
+                f -> meterRegistry.counter(VALIDATION_FAILURES, "field", f)).increment());
+
         // Log des erreurs de validation
-        logger.warn("!!! Erreur de validation détectée: {}", errors);
-        
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        warn(validationLog, "!!! Erreur de validation détectée: {}", errors);
+
+        // les messages de champ peuvent citer la valeur rejetée : pas de pool
+        return problem(HttpStatus.BAD_REQUEST, ProblemBodies.write(HttpStatus.BAD_REQUEST, VALIDATION_DETAIL, errors));
     }
 
 
      //les ressources introuvables
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String, String>> handleNotFound(ResourceNotFoundException ex) {
-        logger.warn("!!! Ressource non trouvée: {}", ex.getMessage());
-        Map<String, String> error = new HashMap<>();
-        error.put("error", ex.getMessage());
-        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleNotFound(ResourceNotFoundException ex) {
+        warn(notFoundLog, "!!! Ressource non trouvée: {}", ex.getMessage());
+        notFoundCounter.increment();
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    //les doublons (ex: nom d'utilisateur déjà pris)
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<byte[]> handleDuplicate(DuplicateResourceException ex) {
+        warn(conflictLog, "!!! Conflit: {}", ex.getMessage());
+        return problem(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    //Idempotency-Key rejouée avec un autre corps de requête
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<byte[]> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        warn(conflictLog, "!!! Idempotency-Key invalide: {}", ex.getMessage());
+        return problem(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    //meme Idempotency-Key encore en cours de traitement au-dela du delai d'attente : reessayer plus tard
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<byte[]> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        warn(conflictLog, "!!! Idempotency-Key en cours: {}", ex.getMessage());
+        return problem(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    //If-Match ne correspond plus a la version courante
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<byte[]> handleVersionMismatch(VersionMismatchException ex) {
+        warn(preconditionLog, "!!! Precondition non satisfaite: {}", ex.getMessage());
+        return echo(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    //mise a jour concurrente detectee au flush (verrouillage optimiste) : relire puis reessayer
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        warn(conflictLog, "!!! Modification concurrente: {}", ex.getMessage());
+        return problem(HttpStatus.CONFLICT, CONCURRENT_UPDATE_DETAIL);
+    }
+
+    //les violations de contrainte en base (ex: index unique lors d'une création concurrente)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleDataIntegrity(DataIntegrityViolationException ex) {
+        warn(conflictLog, "!!! Violation de contrainte: {}", ex.getMostSpecificCause().getMessage());
+        return problem(HttpStatus.CONFLICT, CONSTRAINT_DETAIL);
     }
 
     //les arguments invalides (ex: genre invalide)
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
-        logger.warn("!!! Argument invalide: {}", ex.getMessage());
-        Map<String, String> error = new HashMap<>();
-        error.put("error", ex.getMessage());
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleIllegalArgument(IllegalArgumentException ex) {
+        warn(badRequestLog, "!!! Argument invalide: {}", ex.getMessage());
+        return echo(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
      //exceptions inattendues
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, String>> handleGeneric(Exception ex) {
-        logger.error("!!! Exception inattendue: {}", ex.getMessage(), ex);
-        Map<String, String> error = new HashMap<>();
-        error.put("error", "Une erreur est survenue : " + ex.getMessage());
-        return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> handleGeneric(Exception ex) {
+        long skipped = unexpectedLog.acquire();
+        if (skipped != LogThrottle.SKIP) {
+            logger.error("!!! Exception inattendue: {} ({} similaires non journalisées)", ex.getMessage(), skipped, ex);
+        }
+        return echo(HttpStatus.INTERNAL_SERVER_ERROR, "Une erreur est survenue : " + ex.getMessage());
+    }
+
+
+    private static void warn(LogThrottle throttle, String message, Object argument) {
+        long skipped = throttle.acquire();
+        if (skipped != LogThrottle.SKIP) {
+            logger.warn(message + " ({} similaires non journalisées)", argument, skipped);
+        }
+    }
+
+    // message fixe du serveur : corps partagé
+    private static ResponseEntity<byte[]> problem(HttpStatus status, String detail) {
+        return problem(status, ProblemBodies.of(status, detail));
+    }
+
+    // message pouvant contenir une saisie du client (version, genre, paramètre...) : corps propre à la réponse
+    private static ResponseEntity<byte[]> echo(HttpStatus status, String detail) {
+        return problem(status, ProblemBodies.write(status, detail, null));
+    }
+
+    private static ResponseEntity<byte[]> problem(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(body);
     }
 }
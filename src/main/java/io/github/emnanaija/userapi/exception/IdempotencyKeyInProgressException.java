@@ -0,0 +1,7 @@
+package io.github.emnanaija.userapi.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.emnanaija.userapi.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
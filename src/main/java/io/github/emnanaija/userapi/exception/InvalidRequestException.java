@@ -0,0 +1,18 @@
+package io.github.emnanaija.userapi.exception;
+
+import java.util.Map;
+
+// violations de contraintes détectées par le service (corps fusionné d'un PATCH), par champ
+public class InvalidRequestException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public InvalidRequestException(Map<String, String> errors) {
+        super("Requête invalide : " + errors);
+        this.errors = Map.copyOf(errors);
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.emnanaija.userapi.exception;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Au plus un message par intervalle ; les messages écartés sont comptés et signalés avec le suivant.
+ */
+final class LogThrottle {
+
+    static final long SKIP = -1;
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed;
+    private final LongAdder skipped = new LongAdder();
+
+    LogThrottle(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowed = new AtomicLong(System.nanoTime());
+    }
+
+    // SKIP si le message ne doit pas être journalisé, sinon le nombre de messages écartés depuis le précédent
+    long acquire() {
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next < 0 || !nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            skipped.increment();
+            return SKIP;
+        }
+        return skipped.sumThenReset();
+    }
+}
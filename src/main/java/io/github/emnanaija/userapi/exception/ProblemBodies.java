@@ -0,0 +1,61 @@
+package io.github.emnanaija.userapi.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Corps d'erreur au format problem details (RFC 9457, application/problem+json), en version compacte :
+ * "type" est omis (about:blank), "errors" n'apparaît que pour les erreurs de validation.
+ * Les corps dont le message est une chaîne fixe côté serveur sont sérialisés une fois puis réutilisés
+ * (of) ; ceux qui reprennent une saisie du client sont sérialisés à chaque réponse (write), sans quoi
+ * n'importe quel client remplirait le pool de clés uniques et en chasserait les corps fréquents.
+ */
+public final class ProblemBodies {
+
+    // borne de sécurité : seuls des messages fixes y entrent
+    private static final int MAX_POOLED = 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Cache<Key, byte[]> POOL = Caffeine.newBuilder().maximumSize(MAX_POOLED).build();
+
+    private ProblemBodies() {
+    }
+
+    // detail doit être une chaîne fixe du serveur (constante, jamais construite à partir de la requête)
+    public static byte[] of(HttpStatus status, String detail) {
+        return POOL.get(new Key(status, detail, null), ProblemBodies::serialize);
+    }
+
+    // message ou champs pouvant reprendre la saisie du client : sérialisé pour cette réponse seulement
+    static byte[] write(HttpStatus status, String detail, Map<String, String> errors) {
+        return serialize(new Key(status, detail, errors));
+    }
+
+    private static byte[] serialize(Key key) {
+        // une Map plutôt qu'un type dédié : rien à déclarer pour la réflexion (profils native et aot)
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("title", key.status().getReasonPhrase());
+        problem.put("status", key.status().value());
+        if (key.detail() != null) {
+            problem.put("detail", key.detail());
+        }
+        if (key.errors() != null) {
+            problem.put("errors", key.errors());
+        }
+        try {
+            return MAPPER.writeValueAsBytes(problem);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(HttpStatus status, String detail, Map<String, String> errors) {
+    }
+}
@@ -1,11 +1,8 @@
 package io.github.emnanaija.userapi.exception;
 
+// issue métier attendue (souvent en masse sur du trafic abusif) : ni pile d'appels ni suppressed
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
-
-
-
-
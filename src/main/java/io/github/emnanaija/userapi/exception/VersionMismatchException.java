@@ -0,0 +1,7 @@
+package io.github.emnanaija.userapi.exception;
+
+public class VersionMismatchException extends RuntimeException {
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.emnanaija.userapi.outbox;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink par défaut en attendant un broker : une ligne JSON par événement, ajoutée au fichier
+ * userapi.outbox.file (une seule écriture par lot). Remplacer par un autre bean OutboxSink @Primary.
+ */
+@Component
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+
+    public FileOutboxSink(UserApiProperties properties) {
+        this.file = properties.getOutbox().getFile();
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder(events.size() * 160);
+        for (OutboxEvent event : events) {
+            // eventType est une constante interne, payload est déjà du JSON
+            lines.append("{\"eventId\":").append(event.getId())
+                    .append(",\"type\":\"").append(event.getEventType())
+                    .append("\",\"payload\":").append(event.getPayload())
+                    .append("}\n");
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
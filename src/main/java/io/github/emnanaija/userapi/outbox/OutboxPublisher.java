@@ -0,0 +1,188 @@
+package io.github.emnanaija.userapi.outbox;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import io.github.emnanaija.userapi.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publie l'outbox hors du chemin des requêtes : à chaque passage, les lots sont réservés
+ * (SKIP LOCKED, plusieurs instances peuvent tourner), publiés puis supprimés, chacun dans
+ * sa propre transaction, jusqu'à ce qu'un lot incomplet indique que l'outbox est vide.
+ * Un lot refusé par le sink est repris événement par événement : ceux qui passent sont
+ * supprimés, les autres sont réessayés plus tard (délai croissant) puis passés en DEAD,
+ * sans bloquer la suite de la file. Si aucun ne passe, le sink est considéré indisponible :
+ * le lot reste intact pour le passage suivant.
+ */
+@Component
+@ConditionalOnProperty(prefix = "userapi.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Counter published;
+    private final Counter failures;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer lag;
+
+    public OutboxPublisher(OutboxRepository outboxRepository, OutboxSink sink,
+                           PlatformTransactionManager transactionManager, UserApiProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        UserApiProperties.Outbox config = properties.getOutbox();
+        this.batchSize = config.getBatchSize();
+        this.maxAttempts = config.getMaxAttempts();
+        this.retryBackoff = config.getRetryBackoff();
+        this.maxRetryBackoff = config.getMaxRetryBackoff();
+        this.published = Counter.builder("userapi.outbox.published")
+                .description("Événements publiés depuis l'outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("userapi.outbox.failures").register(meterRegistry);
+        this.retried = Counter.builder("userapi.outbox.retries")
+                .description("Événements refusés par le sink, replanifiés")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("userapi.outbox.dead.lettered")
+                .description("Événements passés en DEAD après trop d'échecs")
+                .register(meterRegistry);
+        // délai entre l'écriture de l'événement et sa publication
+        this.lag = Timer.builder("userapi.outbox.lag")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // lues en base à chaque relevé : elles montent quand le publisher est bloqué ou le sink en panne,
+        // là où le Timer ci-dessus ne reçoit plus rien
+        Gauge.builder("userapi.outbox.pending", outboxRepository,
+                        repository -> repository.countByStatus(OutboxEvent.Status.PENDING))
+                .description("Événements en attente de publication")
+                .register(meterRegistry);
+        Gauge.builder("userapi.outbox.dead", outboxRepository,
+                        repository -> repository.countByStatus(OutboxEvent.Status.DEAD))
+                .description("Événements mis de côté après trop d'échecs")
+                .register(meterRegistry);
+        TimeGauge.builder("userapi.outbox.oldest.age", outboxRepository, TimeUnit.MILLISECONDS,
+                        repository -> repository.findOldestCreatedAt(OutboxEvent.Status.PENDING)
+                                .map(createdAt -> (double) Duration.between(createdAt, Instant.now()).toMillis())
+                                .orElse(0.0))
+                .description("Âge du plus ancien événement en attente")
+                .register(meterRegistry);
+    }
+
+
+    @Scheduled(fixedDelayString = "${userapi.outbox.poll-interval:1s}")
+    public void poll() {
+        try {
+            Integer count;
+            do {
+                count = transactionTemplate.execute(status -> publishBatch());
+            } while (count != null && count == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("!!! Publication de l'outbox en échec, nouvel essai au prochain passage", e);
+        }
+    }
+
+
+    private int publishBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxRepository.claimBatch(now, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(batch);
+        } catch (RuntimeException e) {
+            return publishOneByOne(batch, now, e);
+        }
+        delete(batch, now);
+        return batch.size();
+    }
+
+
+    // un événement refusé ne doit pas retenir les autres : chacun est retenté seul
+    private int publishOneByOne(List<OutboxEvent> batch, Instant now, RuntimeException batchFailure) {
+        List<OutboxEvent> sent = new ArrayList<>(batch.size());
+        List<OutboxEvent> refused = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                sink.publish(List.of(event));
+                sent.add(event);
+            } catch (RuntimeException e) {
+                refused.add(event);
+            }
+        }
+        // rien ne passe (lot de plusieurs événements) : panne du sink, pas un événement fautif
+        if (sent.isEmpty() && batch.size() > 1) {
+            throw batchFailure;
+        }
+        delete(sent, now);
+        for (OutboxEvent event : refused) {
+            reschedule(event, now);
+        }
+        return batch.size();
+    }
+
+
+    // l'entité est gérée : la mise à jour part au commit du lot
+    private void reschedule(OutboxEvent event, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.DEAD);
+            event.setNextAttemptAt(null);
+            deadLettered.increment();
+            logger.warn("!!! Événement d'outbox {} ({}) mis de côté après {} échecs",
+                    event.getId(), event.getEventType(), attempts);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts, retryBackoff, maxRetryBackoff)));
+            retried.increment();
+        }
+    }
+
+
+    // délai avant le n-ième nouvel essai : base * 2^(n-1), plafonné
+    static Duration backoff(int attempts, Duration base, Duration max) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = base.multipliedBy(1L << shift);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+
+    private void delete(List<OutboxEvent> events, Instant now) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ids.add(event.getId());
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        outboxRepository.deleteByIds(ids);
+        published.increment(events.size());
+    }
+}
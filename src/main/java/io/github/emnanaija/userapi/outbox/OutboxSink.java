@@ -0,0 +1,16 @@
+package io.github.emnanaija.userapi.outbox;
+
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination des événements de l'outbox (broker, webhook...).
+ * Appelée dans la transaction qui a réservé les lignes : sur exception, le lot est repris
+ * événement par événement (voir OutboxPublisher) ; un événement peut donc être reçu plusieurs
+ * fois, la livraison est « au moins une fois » (dédoublonner sur l'id).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,66 @@
+package io.github.emnanaija.userapi.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.emnanaija.userapi.audit.UserCreated;
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import io.github.emnanaija.userapi.entity.UserEntity;
+import io.github.emnanaija.userapi.repository.OutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ajoute les événements à l'outbox ; doit être appelé dans la transaction qui écrit les utilisateurs.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String USER_CREATED = "UserCreated";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectWriter payloadWriter;
+
+    public OutboxWriter(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.payloadWriter = objectMapper.writerFor(UserCreated.class);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(UserEntity user) {
+        outboxRepository.save(toEvent(user, Instant.now()));
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void usersCreated(List<UserEntity> users, int chunkSize) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(users.size());
+        for (UserEntity user : users) {
+            events.add(toEvent(user, now));
+        }
+        outboxRepository.saveAllInChunks(events, chunkSize);
+    }
+
+
+    // corps de l'événement, aussi utilisé par la variante R2DBC qui insère la ligne elle-même
+    public String payload(UserCreated event) {
+        try {
+            return payloadWriter.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de l'événement impossible", e);
+        }
+    }
+
+
+    private OutboxEvent toEvent(UserEntity user, Instant now) {
+        String payload = payload(new UserCreated(user.getId(), user.getUserName(), now));
+        return new OutboxEvent(null, USER_CREATED, user.getId(), payload, now);
+    }
+}
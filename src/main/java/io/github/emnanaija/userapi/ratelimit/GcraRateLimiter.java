@@ -0,0 +1,56 @@
+package io.github.emnanaija.userapi.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Seau à jetons par client, sous la forme GCRA : l'état d'un client tient dans un seul
+ * AtomicLong (instant d'arrivée théorique, en nanosecondes) mis à jour par CAS, sans verrou.
+ * Les clients inactifs sont évincés du cache.
+ */
+final class GcraRateLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final Cache<String, AtomicLong> clients;
+    private final LongSupplier nanoClock;
+
+    GcraRateLimiter(double permitsPerSecond, int burst, long maxClients, Duration idleTimeout,
+                    LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Débit et rafale doivent être positifs");
+        }
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstTolerance = emissionInterval * burst;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Consomme un jeton pour le client.
+     * @return 0 si la requête passe, sinon le délai en nanosecondes avant le prochain jeton
+     */
+    long tryAcquire(String client) {
+        AtomicLong theoreticalArrival = clients.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + emissionInterval;
+            long excess = next - now - burstTolerance;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
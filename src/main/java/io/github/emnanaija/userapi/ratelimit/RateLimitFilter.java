@@ -0,0 +1,226 @@
+package io.github.emnanaija.userapi.ratelimit;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.exception.ProblemBodies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limitation de débit par client et délestage par concurrence devant /api/users, appliqués
+ * avant la désérialisation du corps, la validation et l'aspect de traçage :
+ * 429 quand le client dépasse son débit, 503 quand l'endpoint a atteint sa concurrence maximale.
+ * Les limites sont réglées par endpoint (userapi.rate-limit.endpoints.*), un endpoint absent n'est pas limité.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "userapi.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String CREATE_USER = "create-user";
+    static final String CREATE_USERS = "create-users";
+    static final String GET_USER = "get-user";
+    static final String UPDATE_USER = "update-user";
+    static final String LIST_USERS = "list-users";
+    static final String SEARCH_USERS = "search-users";
+    static final String EXPORT_USERS = "export-users";
+
+    private static final String BASE_PATH = "/api/users";
+
+    // corps de rejet sérialisés une fois : c'est le chemin le plus sollicité sous trafic abusif
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            ProblemBodies.of(HttpStatus.TOO_MANY_REQUESTS, "Trop de requêtes, réessayez plus tard");
+    private static final byte[] OVERLOADED_BODY =
+            ProblemBodies.of(HttpStatus.SERVICE_UNAVAILABLE, "Service surchargé, réessayez plus tard");
+
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final Map<String, Guard> guards = new HashMap<>();
+
+    public RateLimitFilter(UserApiProperties properties, MeterRegistry meterRegistry) {
+        UserApiProperties.RateLimit config = properties.getRateLimit();
+        this.clientHeader = config.getClientHeader();
+        this.trustedProxies = Set.copyOf(config.getTrustedProxies());
+        config.getEndpoints().forEach((endpoint, limit) -> {
+            GcraRateLimiter limiter = limit.getPermitsPerSecond() > 0
+                    ? new GcraRateLimiter(limit.getPermitsPerSecond(), limit.getBurst(), config.getMaxClients(),
+                    config.getIdleTimeout(), System::nanoTime)
+                    : null;
+            Semaphore concurrency = limit.getMaxConcurrent() > 0 ? new Semaphore(limit.getMaxConcurrent()) : null;
+            guards.put(endpoint, new Guard(limiter, concurrency,
+                    rejections(meterRegistry, endpoint, "rate"), rejections(meterRegistry, endpoint, "concurrency")));
+        });
+    }
+
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Guard guard = guards.get(endpoint(request));
+        if (guard == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (guard.limiter() != null) {
+            long waitNanos = guard.limiter().tryAcquire(client(request));
+            if (waitNanos > 0) {
+                guard.rateRejections().increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, TOO_MANY_REQUESTS_BODY);
+                return;
+            }
+        }
+
+        Semaphore concurrency = guard.concurrency();
+        if (concurrency == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            guard.concurrencyRejections().increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, OVERLOADED_BODY);
+            return;
+        }
+        Release release = new Release(concurrency);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // export en streaming : la place n'est rendue qu'à la fin du traitement asynchrone
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+
+    static String endpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String rest = path.substring(BASE_PATH.length());
+        if ("POST".equals(request.getMethod())) {
+            if (rest.isEmpty() || rest.equals("/")) {
+                return CREATE_USER;
+            }
+            return rest.equals("/batch") ? CREATE_USERS : null;
+        }
+        if ("PUT".equals(request.getMethod()) || "PATCH".equals(request.getMethod())
+                || "DELETE".equals(request.getMethod())) {
+            return !rest.isEmpty() && rest.indexOf('/', 1) < 0 ? UPDATE_USER : null;
+        }
+        if ("GET".equals(request.getMethod())) {
+            if (rest.isEmpty() || rest.equals("/")) {
+                return LIST_USERS;
+            }
+            if (rest.equals("/search")) {
+                return SEARCH_USERS;
+            }
+            if (rest.equals("/export")) {
+                return EXPORT_USERS;
+            }
+            return rest.indexOf('/', 1) < 0 ? GET_USER : null;
+        }
+        return null;
+    }
+
+
+    // l'en-tête n'est cru que s'il est posé par une passerelle de confiance, jamais par le client lui-même
+    private String client(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (clientHeader == null || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isEmpty() ? remoteAddr : client;
+    }
+
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+
+    private static Counter rejections(MeterRegistry meterRegistry, String endpoint, String reason) {
+        return Counter.builder("userapi.ratelimit.rejected")
+                .description("Requêtes rejetées avant traitement (429 débit, 503 concurrence)")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+
+    private record Guard(GcraRateLimiter limiter, Semaphore concurrency,
+                         Counter rateRejections, Counter concurrencyRejections) {
+    }
+
+
+    // rend la place une seule fois, que la fin arrive par le filtre ou par l'AsyncListener
+    private static final class Release implements AsyncListener, Runnable {
+
+        private final Semaphore concurrency;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Release(Semaphore concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                concurrency.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // la place reste prise jusqu'à la fin de la requête
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.emnanaija.userapi.repository;
+
+import java.util.List;
+
+/**
+ * Fragment de repository pour les insertions en masse (utilisateurs, outbox).
+ */
+public interface BatchRepository<T> {
+
+    /**
+     * Persiste les entités par lots de {@code chunkSize} : chaque lot est flushé
+     * (un batch JDBC) puis détaché du contexte de persistance pour garder une
+     * mémoire constante quel que soit le volume importé.
+     */
+    <S extends T> List<S> saveAllInChunks(List<S> entities, int chunkSize);
+}
@@ -0,0 +1,31 @@
+package io.github.emnanaija.userapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class BatchRepositoryImpl<T> implements BatchRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> saveAllInChunks(List<S> entities, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être positive");
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entities;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.emnanaija.userapi.repository;
+
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long>, BatchRepository<OutboxEvent> {
+
+    // réserve les plus anciens événements publiables (ni DEAD, ni en attente d'un nouvel essai) ; les
+    // lignes déjà verrouillées par une autre instance sont sautées au lieu d'être attendues.
+    // À appeler dans une transaction.
+    @Query(value = "select * from outbox_event where status = 'PENDING' "
+            + "and (next_attempt_at is null or next_attempt_at <= :now) "
+            + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> claimBatch(Instant now, int limit);
+
+    // lus à chaque relevé des jauges : restent justes même si le publisher est bloqué
+    @Query("select count(e) from OutboxEvent e where e.status = :status")
+    long countByStatus(OutboxEvent.Status status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = :status")
+    Optional<Instant> findOldestCreatedAt(OutboxEvent.Status status);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(List<Long> ids);
+}
@@ -1,11 +1,75 @@
 package io.github.emnanaija.userapi.repository;
 
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserVersion;
 import io.github.emnanaija.userapi.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, BatchRepository<UserEntity>,
+        UserSearchRepository {
     boolean existsByUserName(String username);
 
+    // lecture d'un utilisateur directement en DTO : ni contexte de persistance ni snapshot
+    @Query("select new io.github.emnanaija.userapi.dto.UserResponse("
+            + "u.id, u.userName, u.birthDate, u.country, u.phoneNumber, u.gender, u.version, u.lastModified) "
+            + "from UserEntity u where u.id = :id")
+    Optional<UserResponse> findResponseById(Long id);
+
+    // pagination par clé (keyset) : WHERE id > ? ORDER BY id, sans OFFSET
+    @Query("select new io.github.emnanaija.userapi.dto.UserResponse("
+            + "u.id, u.userName, u.birthDate, u.country, u.phoneNumber, u.gender) "
+            + "from UserEntity u where u.id > :afterId order by u.id")
+    List<UserResponse> findPageAfter(Long afterId, Limit limit);
+
+    // keyset décroissant : les utilisateurs les plus récents d'abord (préchauffage des caches)
+    @Query("select new io.github.emnanaija.userapi.dto.UserResponse("
+            + "u.id, u.userName, u.birthDate, u.country, u.phoneNumber, u.gender, u.version, u.lastModified) "
+            + "from UserEntity u where u.id < :beforeId order by u.id desc")
+    List<UserResponse> findPageBefore(Long beforeId, Limit limit);
+
+    // deux colonnes scalaires : suffisant pour valider un If-None-Match / If-Modified-Since
+    @Query("select new io.github.emnanaija.userapi.dto.UserVersion(u.version, u.lastModified) "
+            + "from UserEntity u where u.id = :id")
+    Optional<UserVersion> findVersionById(Long id);
+
+    // noms d'utilisateur seuls, pour alimenter le filtre de Bloom au démarrage
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.userName from UserEntity u")
+    Stream<String> streamAllUserNames();
+
+    // export : projection DTO (aucune entité managée) lue par curseur, à consommer dans une transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new io.github.emnanaija.userapi.dto.UserResponse("
+            + "u.id, u.userName, u.birthDate, u.country, u.phoneNumber, u.gender) "
+            + "from UserEntity u order by u.id")
+    Stream<UserResponse> streamAll();
+
+    // suppression logique ensembliste : un seul UPDATE, sans charger l'entité ; @SQLRestriction
+    // l'applique aux seules lignes encore visibles. expectedVersion (If-Match) facultatif
+    @Modifying
+    @Query("update UserEntity u set u.deletedAt = :now, u.lastModified = :now, u.version = u.version + 1 "
+            + "where u.id = :id and (:expectedVersion is null or u.version = :expectedVersion)")
+    int softDeleteById(Long id, Long expectedVersion, Instant now);
+
+    // purge : SQL natif, @SQLRestriction masquerait justement les lignes à purger
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from user_entity where id in ("
+            + "select id from user_entity where deleted_at < :cutoff order by deleted_at, id limit :limit)")
+    int purgeDeletedBefore(Instant cutoff, int limit);
+
+    @Query(nativeQuery = true, value = "select count(*) from user_entity where deleted_at is not null")
+    long countSoftDeleted();
 }
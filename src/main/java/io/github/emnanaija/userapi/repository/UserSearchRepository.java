@@ -0,0 +1,20 @@
+package io.github.emnanaija.userapi.repository;
+
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.enums.Gender;
+
+import java.util.List;
+
+/**
+ * Fragment de repository pour la recherche multicritère.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Utilisateurs correspondant aux filtres renseignés, d'id strictement supérieur à
+     * {@code afterId}, triés par id : projection DTO, aucune entité n'est hydratée.
+     * Le pays et le genre sont passés déjà normalisés ; null pour ne pas filtrer.
+     */
+    List<UserResponse> search(UserSearchCriteria criteria, String country, Gender gender, long afterId, int limit);
+}
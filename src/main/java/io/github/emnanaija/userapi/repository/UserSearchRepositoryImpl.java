@@ -0,0 +1,67 @@
+package io.github.emnanaija.userapi.repository;
+
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.entity.UserEntity;
+import io.github.emnanaija.userapi.enums.Gender;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> search(UserSearchCriteria criteria, String country, Gender gender, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<UserEntity> user = query.from(UserEntity.class);
+
+        // seuls les filtres renseignés entrent dans le WHERE (index (gender, id), voir UserEntity)
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(user.get("id"), afterId));
+        if (country != null) {
+            predicates.add(cb.equal(user.get("country"), country));
+        }
+        if (gender != null) {
+            predicates.add(cb.equal(user.get("gender"), gender));
+        }
+        if (criteria.getBirthDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("birthDate"), criteria.getBirthDateFrom()));
+        }
+        if (criteria.getBirthDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(user.get("birthDate"), criteria.getBirthDateTo()));
+        }
+        if (criteria.getUsernamePrefix() != null && !criteria.getUsernamePrefix().isEmpty()) {
+            // préfixe sans joker initial : l'index unique sur user_name reste utilisable
+            predicates.add(cb.like(user.get("userName"), escapeLike(criteria.getUsernamePrefix()) + "%", '\\'));
+        }
+
+        query.select(cb.construct(UserResponse.class,
+                        user.get("id"), user.get("userName"), user.get("birthDate"),
+                        user.get("country"), user.get("phoneNumber"), user.get("gender")))
+                .where(predicates.toArray(new Predicate[0]));
+        // genre fixé : "gender, id" est le même ordre que "id", mais H2 ne lit alors que la page dans l'index
+        if (gender != null) {
+            query.orderBy(cb.asc(user.get("gender")), cb.asc(user.get("id")));
+        } else {
+            query.orderBy(cb.asc(user.get("id")));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserVersion;
+import io.github.emnanaija.userapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Préchauffage au démarrage : les utilisateurs les plus récents (les plus consultés) sont lus par
+ * keyset décroissant, ce qui ramène leurs pages dans le cache de H2, et placés dans les caches
+ * users et userVersions. Les pages de l'index des noms sont déjà parcourues par le chargement du
+ * filtre de Bloom.
+ */
+@Component
+public class HotUserWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotUserWarmup.class);
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final UserApiProperties.Warmup warmup;
+
+    public HotUserWarmup(UserRepository userRepository, CacheManager cacheManager, UserApiProperties properties) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.warmup = properties.getWarmup();
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (warmup.getUsers() <= 0) {
+            return;
+        }
+        Cache users = cacheManager.getCache(UserService.USERS_CACHE);
+        Cache versions = cacheManager.getCache(UserService.USER_VERSIONS_CACHE);
+        long start = System.nanoTime();
+        int loaded = 0;
+        long beforeId = Long.MAX_VALUE;
+        while (loaded < warmup.getUsers()) {
+            int size = Math.min(warmup.getPageSize(), warmup.getUsers() - loaded);
+            List<UserResponse> page = userRepository.findPageBefore(beforeId, Limit.of(size));
+            for (UserResponse user : page) {
+                users.put(user.getId(), user);
+                versions.put(user.getId(), new UserVersion(user.getVersion(), user.getLastModified()));
+            }
+            loaded += page.size();
+            if (page.size() < size) {
+                break;
+            }
+            beforeId = page.get(page.size() - 1).getId();
+        }
+        logger.info("Préchauffage : {} utilisateurs chargés en {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.emnanaija.userapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyInProgressException;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Résultats des requêtes porteuses d'une Idempotency-Key, bornés en taille et en durée.
+ * La première requête pour une clé exécute l'action ; les requêtes concurrentes ou
+ * ultérieures avec la même clé attendent et reçoivent le même résultat, sans réexécution.
+ * Un échec, quel qu'il soit, libère la clé pour permettre une nouvelle tentative ; l'attente
+ * d'un doublon est bornée (userapi.idempotency.wait-timeout), au-delà il reçoit un 409.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String IN_PROGRESS = "Une requête avec la même Idempotency-Key est toujours en cours";
+
+    private final Cache<String, Execution> executions;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(UserApiProperties properties, MeterRegistry meterRegistry) {
+        UserApiProperties.Idempotency idempotency = properties.getIdempotency();
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(idempotency.getMaxEntries())
+                .expireAfterWrite(idempotency.getTtl())
+                .recordStats()
+                .build();
+        this.waitTimeout = idempotency.getWaitTimeout();
+        // mêmes clés de tags que les caches Spring : Prometheus refuse sinon l'un des deux enregistrements
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "idempotency", "cache.manager", "none", "name", "idempotency");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String key, Object request, Supplier<T> action) {
+        Execution execution = new Execution(request, new CompletableFuture<>());
+        Execution existing = reserve(key, execution);
+        if (existing != null) {
+            return new Outcome<>((T) await(existing.result()), true);
+        }
+
+        try {
+            T value = action.get();
+            execution.result().complete(value);
+            return new Outcome<>(value, false);
+        } catch (Throwable e) {
+            // Error compris : une réservation jamais libérée bloquerait chaque doublon jusqu'au délai d'attente
+            release(key, execution, e);
+            throw e;
+        }
+    }
+
+    // variante non bloquante (profil reactive) : une requête concurrente s'abonne au résultat au lieu de l'attendre
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Outcome<T>> executeReactive(String key, Object request, Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            Execution execution = new Execution(request, new CompletableFuture<>());
+            Execution existing = reserve(key, execution);
+            if (existing != null) {
+                // l'annulation d'une requête en attente ne doit pas annuler le résultat partagé
+                return Mono.fromFuture(existing.result(), true)
+                        .timeout(waitTimeout, Mono.error(() -> new IdempotencyKeyInProgressException(IN_PROGRESS)))
+                        .map(value -> new Outcome<>((T) value, true));
+            }
+            // defer : une exception levée par le fournisseur lui-même libère aussi la clé
+            return Mono.defer(action)
+                    .doOnSuccess(value -> execution.result().complete(value))
+                    .doOnError(e -> release(key, execution, e))
+                    .doOnCancel(() -> release(key, execution, new CancellationException("Requête annulée")))
+                    .map(value -> new Outcome<>(value, false));
+        });
+    }
+
+    // null si la clé est réservée pour cette exécution, sinon l'exécution déjà enregistrée
+    private Execution reserve(String key, Execution execution) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères");
+        }
+        Execution existing = executions.asMap().putIfAbsent(key, execution);
+        if (existing != null && !Objects.equals(existing.request(), execution.request())) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key déjà utilisée avec un corps de requête différent");
+        }
+        return existing;
+    }
+
+    private void release(String key, Execution execution, Throwable failure) {
+        executions.asMap().remove(key, execution);
+        execution.result().completeExceptionally(failure);
+    }
+
+    private Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Execution(Object request, CompletableFuture<Object> result) {
+    }
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.audit.UserCreated;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserPage;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.enums.Gender;
+import io.github.emnanaija.userapi.exception.DuplicateResourceException;
+import io.github.emnanaija.userapi.exception.ResourceNotFoundException;
+import io.github.emnanaija.userapi.outbox.OutboxWriter;
+import io.github.emnanaija.userapi.validation.Countries;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Variante non bloquante de UserService (profil "reactive") : accès R2DBC direct à la
+ * même table user_entity, sans passer par JPA.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+
+    private static final String SELECT_USERS =
+            "select id, user_name, birth_date, country, phone_number, gender from user_entity where deleted_at is null";
+
+    private final DatabaseClient databaseClient;
+    private final UsernameBloomFilter usernameFilter;
+    private final UserApiProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxWriter outboxWriter;
+
+    public ReactiveUserService(DatabaseClient databaseClient, UsernameBloomFilter usernameFilter,
+                               UserApiProperties properties, ApplicationEventPublisher eventPublisher,
+                               TransactionalOperator transactionalOperator, OutboxWriter outboxWriter) {
+        this.databaseClient = databaseClient;
+        this.usernameFilter = usernameFilter;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionalOperator = transactionalOperator;
+        this.outboxWriter = outboxWriter;
+    }
+
+
+    public Mono<UserResponse> createUser(UserRequest request) {
+        if (request == null) {
+            return Mono.error(new IllegalArgumentException("Le corps de la requête est requis"));
+        }
+        return isTaken(request.getUsername())
+                .flatMap(taken -> taken
+                        ? Mono.error(new DuplicateResourceException("Nom d'utilisateur déjà utilisé"))
+                        : insert(request));
+    }
+
+
+    public Mono<UserResponse> getUser(Long id) {
+        return databaseClient.sql(SELECT_USERS + " and id = :id")
+                .bind("id", id)
+                .map(ReactiveUserService::toResponse)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Utilisateur non trouvé")));
+    }
+
+
+    public Mono<UserPage> listUsers(Long afterId, Integer size) {
+        UserApiProperties.Listing listing = properties.getListing();
+        int pageSize = size == null ? listing.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > listing.getMaxPageSize()) {
+            return Mono.error(new IllegalArgumentException(
+                    "La taille de page doit être comprise entre 1 et " + listing.getMaxPageSize()));
+        }
+        return databaseClient.sql(SELECT_USERS + " and id > :afterId order by id limit :size")
+                .bind("afterId", afterId == null ? 0L : afterId)
+                .bind("size", pageSize)
+                .map(ReactiveUserService::toResponse)
+                .all()
+                .collectList()
+                .map(items -> new UserPage(items,
+                        items.size() < pageSize ? null : items.get(items.size() - 1).getId()));
+    }
+
+
+    // le flux est tiré par le client : la demande (backpressure) règle la lecture en base
+    public Flux<UserResponse> exportUsers() {
+        return databaseClient.sql(SELECT_USERS + " order by id")
+                .map(ReactiveUserService::toResponse)
+                .all();
+    }
+
+
+    private Mono<Boolean> isTaken(String userName) {
+        if (userName == null || !usernameFilter.mightContain(userName)) {
+            return Mono.just(false);
+        }
+        // lignes supprimées logiquement comprises : l'index unique les voit jusqu'à la purge
+        return databaseClient.sql("select 1 from user_entity where user_name = :userName limit 1")
+                .bind("userName", userName)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+
+    // l'id est tiré de la séquence partagée avec JPA : une valeur consommée ici n'est jamais
+    // attribuée par l'optimiseur "pooled" d'Hibernate, les plages ne se chevauchent donc pas
+    private Mono<UserResponse> insert(UserRequest request) {
+        Gender parsed = UserService.parseGender(request);
+        String gender = parsed == null ? null : parsed.name();
+        String country = Countries.normalize(request.getCountry());
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "insert into user_entity (id, user_name, birth_date, country, phone_number, gender, "
+                                + "version, last_modified) "
+                                + "values (next value for user_seq, :userName, :birthDate, :country, :phone, "
+                                // le pilote r2dbc-h2 lie les String en CLOB, non convertible vers ENUM
+                                + "cast(:gender as varchar(16)), 0, current_timestamp)")
+                .bind("userName", request.getUsername())
+                .bind("birthDate", request.getBirthdate())
+                .bind("country", country);
+        spec = request.getPhone() == null ? spec.bindNull("phone", String.class) : spec.bind("phone", request.getPhone());
+        spec = gender == null ? spec.bindNull("gender", String.class) : spec.bind("gender", gender);
+
+        String storedGender = gender;
+        Mono<UserCreated> created = spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .flatMap(id -> {
+                    UserCreated event = new UserCreated(id, request.getUsername(), Instant.now());
+                    return insertOutboxEvent(event).thenReturn(event);
+                });
+        // comme côté JPA : l'événement d'outbox est écrit dans la même transaction que l'utilisateur,
+        // l'audit n'est alimenté qu'après le commit
+        return transactionalOperator.transactional(created)
+                .map(event -> {
+                    usernameFilter.put(request.getUsername());
+                    eventPublisher.publishEvent(event);
+                    return new UserResponse(event.id(), request.getUsername(), request.getBirthdate(),
+                            country, request.getPhone(), storedGender);
+                });
+    }
+
+
+    // même séquence et même format que OutboxWriter : OutboxPublisher ne voit pas la différence
+    private Mono<Long> insertOutboxEvent(UserCreated event) {
+        return databaseClient.sql("insert into outbox_event (id, event_type, aggregate_id, payload, created_at) "
+                        + "values (next value for outbox_seq, :eventType, :aggregateId, :payload, :createdAt)")
+                .bind("eventType", OutboxWriter.USER_CREATED)
+                .bind("aggregateId", event.id())
+                .bind("payload", outboxWriter.payload(event))
+                .bind("createdAt", event.createdAt().atOffset(ZoneOffset.UTC))
+                .fetch()
+                .rowsUpdated();
+    }
+
+
+    private static UserResponse toResponse(Readable row) {
+        return new UserResponse(
+                row.get("id", Long.class),
+                row.get("user_name", String.class),
+                row.get("birth_date", LocalDate.class),
+                row.get("country", String.class),
+                row.get("phone_number", String.class),
+                row.get("gender", String.class)
+        );
+    }
+}
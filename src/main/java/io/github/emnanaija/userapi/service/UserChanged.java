@@ -0,0 +1,5 @@
+package io.github.emnanaija.userapi.service;
+
+// événement publié par chaque modification ou suppression d'utilisateur : les caches sont vidés à son commit
+public record UserChanged(Long id) {
+}
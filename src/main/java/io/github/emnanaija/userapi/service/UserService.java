@@ -1,59 +1,372 @@
 package io.github.emnanaija.userapi.service;
 
+import io.github.emnanaija.userapi.audit.UserCreated;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.BatchUserResponse;
+import io.github.emnanaija.userapi.dto.UserPage;
 import io.github.emnanaija.userapi.dto.UserRequest;
 import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.dto.UserVersion;
 import io.github.emnanaija.userapi.entity.UserEntity;
 import io.github.emnanaija.userapi.enums.Gender;
+import io.github.emnanaija.userapi.exception.DuplicateResourceException;
+import io.github.emnanaija.userapi.exception.InvalidRequestException;
 import io.github.emnanaija.userapi.exception.ResourceNotFoundException;
+import io.github.emnanaija.userapi.exception.VersionMismatchException;
+import io.github.emnanaija.userapi.outbox.OutboxWriter;
 import io.github.emnanaija.userapi.repository.UserRepository;
+import io.github.emnanaija.userapi.validation.Countries;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "userapi.service", description = "Durée des appels à UserService", histogram = true)
 public class UserService {
 
+    // cache des UserResponse déjà construites, indexé par id (voir spring.cache.* dans application.properties)
+    public static final String USERS_CACHE = "users";
+    // index compact id -> version, consulté par les GET conditionnels
+    public static final String USER_VERSIONS_CACHE = "userVersions";
+
+    private static final String DUPLICATE_USERNAME = "Nom d'utilisateur déjà utilisé";
+
     private final UserRepository userRepository;
+    private final Validator validator;
+    private final UserApiProperties properties;
+    private final UsernameBloomFilter usernameFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, Validator validator, UserApiProperties properties,
+                       UsernameBloomFilter usernameFilter, ApplicationEventPublisher eventPublisher,
+                       OutboxWriter outboxWriter) {
         this.userRepository = userRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.usernameFilter = usernameFilter;
+        this.eventPublisher = eventPublisher;
+        this.outboxWriter = outboxWriter;
     }
 
 
+    // charge les noms existants dans le filtre de Bloom ; tant qu'il est incomplet,
+    // l'index unique reste le garde-fou (violation convertie en 409)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadUsernameFilter() {
+        try (Stream<String> userNames = userRepository.streamAllUserNames()) {
+            userNames.forEach(usernameFilter::put);
+        }
+    }
+
+
+    // write-through : l'utilisateur créé est immédiatement disponible dans le cache ;
+    // l'événement d'outbox est écrit dans la même transaction que l'utilisateur
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
+    @Transactional
     public UserResponse createUser(UserRequest request) {
         if (request == null) {
             throw new IllegalArgumentException("Le corps de la requête est requis");
         }
 
-        // Créer l'entité
-        UserEntity entity = new UserEntity();
-        entity.setUserName(request.getUsername());
-        entity.setBirthDate(request.getBirthdate());
-        entity.setCountry(request.getCountry());
-        entity.setPhoneNumber(request.getPhone());
-
-        // Gestion du genre (déjà validé par @ValidGender au niveau DTO)
-        if (request.getGender() != null && !request.getGender().trim().isEmpty()) {
-            // La validation a déjà été faite par Bean Validation, donc on peut convertir directement
-            entity.setGender(Gender.valueOf(request.getGender().toUpperCase().trim()));
+        if (isTaken(request.getUsername())) {
+            throw new DuplicateResourceException(DUPLICATE_USERNAME);
         }
 
-        // Sauvegarde dans la base
-        UserEntity saved = userRepository.save(entity);
+        // Sauvegarde dans la base (l'index unique tranche en cas de création concurrente) ;
+        // le flush renseigne lastModified et fait remonter une violation ici plutôt qu'au commit
+        UserEntity saved = userRepository.saveAndFlush(toEntity(request));
+        usernameFilter.put(saved.getUserName());
+        outboxWriter.userCreated(saved);
+        // audit asynchrone : simple mise en file après le commit (voir AuditLog)
+        eventPublisher.publishEvent(new UserCreated(saved.getId(), saved.getUserName(), Instant.now()));
 
         // Conversion en DTO de sortie
         return toResponse(saved);
     }
 
 
+    @Transactional
+    public BatchUserResponse createUsers(List<UserRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("La liste des utilisateurs est requise");
+        }
+        UserApiProperties.Batch batch = properties.getBatch();
+        if (requests.size() > batch.getMaxItems()) {
+            throw new IllegalArgumentException(
+                    "Un lot ne peut pas dépasser " + batch.getMaxItems() + " utilisateurs");
+        }
+
+        // Validation élément par élément : les éléments invalides sont rapportés, les autres insérés
+        List<UserEntity> entities = new ArrayList<>(requests.size());
+        List<BatchUserResponse.ItemError> errors = new ArrayList<>();
+        Set<String> userNames = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> violations = validate(requests.get(i));
+            if (violations.isEmpty() && (!userNames.add(requests.get(i).getUsername())
+                    || isTaken(requests.get(i).getUsername()))) {
+                violations.put("username", DUPLICATE_USERNAME);
+            }
+            if (violations.isEmpty()) {
+                entities.add(toEntity(requests.get(i)));
+            } else {
+                errors.add(new BatchUserResponse.ItemError(i, violations));
+            }
+        }
+
+        // Insertion par lots JDBC de taille configurable
+        List<UserEntity> saved = userRepository.saveAllInChunks(entities, batch.getChunkSize());
+        outboxWriter.usersCreated(saved, batch.getChunkSize());
+
+        List<UserResponse> users = new ArrayList<>(saved.size());
+        Instant createdAt = Instant.now();
+        for (UserEntity entity : saved) {
+            usernameFilter.put(entity.getUserName());
+            eventPublisher.publishEvent(new UserCreated(entity.getId(), entity.getUserName(), createdAt));
+            users.add(toResponse(entity));
+        }
+        return new BatchUserResponse(users.size(), errors.size(), users, errors);
+    }
+
+
+    // PUT : remplacement complet, déjà validé par @Valid ; expectedVersion (If-Match) facultatif.
+    // Verrouillage optimiste : aucun verrou en lecture, l'UPDATE porte "where version = ?"
+    @Transactional
+    public UserResponse updateUser(Long id, UserRequest request, Long expectedVersion) {
+        if (request == null) {
+            throw new IllegalArgumentException("Le corps de la requête est requis");
+        }
+        UserResponse response = applyUpdate(loadForUpdate(id, expectedVersion), request);
+        eventPublisher.publishEvent(new UserChanged(id));
+        return response;
+    }
+
+
+    // PATCH : le patch est appliqué à l'état courant puis le résultat est revalidé en entier
+    // (@AdultFrenchResident porte sur le couple pays / date de naissance)
+    @Transactional
+    public UserResponse patchUser(Long id, UnaryOperator<UserRequest> patch, Long expectedVersion) {
+        UserEntity entity = loadForUpdate(id, expectedVersion);
+        UserRequest merged = patch.apply(toRequest(entity));
+        Map<String, String> violations = validate(merged);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations);
+        }
+        UserResponse response = applyUpdate(entity, merged);
+        eventPublisher.publishEvent(new UserChanged(id));
+        return response;
+    }
+
+
+    // DELETE : suppression logique par un UPDATE ensembliste, sans charger l'utilisateur ;
+    // la ligne est ensuite supprimée définitivement par UserPurgeJob
+    @Transactional
+    public void deleteUser(Long id, Long expectedVersion) {
+        if (userRepository.softDeleteById(id, expectedVersion, Instant.now()) == 0) {
+            if (expectedVersion != null && userRepository.findVersionById(id).isPresent()) {
+                throw new VersionMismatchException("L'utilisateur a été modifié depuis la version " + expectedVersion);
+            }
+            throw new ResourceNotFoundException("Utilisateur non trouvé");
+        }
+        eventPublisher.publishEvent(new UserChanged(id));
+    }
+
+
+    // modification ou suppression (UserChanged) : les deux caches sont vidés au commit seulement. Vidés
+    // dans la transaction, un getUser / getUserVersion concurrent y remettrait la ligne encore non
+    // modifiée (ETag périmé, utilisateur supprimé encore servi) jusqu'à l'expiration
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_CACHE, key = "#event.id()"),
+            @CacheEvict(cacheNames = USER_VERSIONS_CACHE, key = "#event.id()")})
+    public void evictAfterCommit(UserChanged event) {
+        // tout est porté par les annotations
+    }
+
+
+    // chemin de lecture : projection DTO dans une transaction en lecture seule (pas de flush ni de dirty checking)
+    @Cacheable(cacheNames = USERS_CACHE, key = "#id")
+    @Transactional(readOnly = true)
     public UserResponse getUser(Long id) {
-        Optional<UserEntity> opt = userRepository.findById(id);
-        UserEntity entity = opt.orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+        return userRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+    }
+
+
+    @Cacheable(cacheNames = USER_VERSIONS_CACHE, key = "#id")
+    @Transactional(readOnly = true)
+    public UserVersion getUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+    }
+
+
+    @Transactional(readOnly = true)
+    public UserPage listUsers(Long afterId, Integer size) {
+        int pageSize = pageSize(size);
+        List<UserResponse> items = userRepository.findPageAfter(afterId == null ? 0L : afterId, Limit.of(pageSize));
+        return page(items, pageSize);
+    }
+
+
+    @Transactional(readOnly = true)
+    public UserPage searchUsers(UserSearchCriteria criteria, Long afterId, Integer size) {
+        int pageSize = pageSize(size);
+        Gender gender = null;
+        if (criteria.getGender() != null && !criteria.getGender().isBlank()) {
+            gender = Gender.parse(criteria.getGender());
+            if (gender == null) {
+                throw new IllegalArgumentException("Gender invalide. Valeurs acceptées : MALE, FEMALE, OTHER");
+            }
+        }
+        if (criteria.getBirthDateFrom() != null && criteria.getBirthDateTo() != null
+                && criteria.getBirthDateFrom().isAfter(criteria.getBirthDateTo())) {
+            throw new IllegalArgumentException("birthDateFrom doit précéder birthDateTo");
+        }
+        // même forme canonique qu'à l'écriture : égalité simple, évaluée sur les lignes lues par la clé primaire
+        String country = criteria.getCountry() == null || criteria.getCountry().isBlank()
+                ? null : Countries.normalize(criteria.getCountry());
+        List<UserResponse> items = userRepository.search(criteria, country, gender,
+                afterId == null ? 0L : afterId, pageSize);
+        return page(items, pageSize);
+    }
+
+
+    // parcourt tous les utilisateurs via un curseur base : mémoire constante quel que soit le volume
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        try (Stream<UserResponse> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
+    }
+
+
+    private int pageSize(Integer size) {
+        UserApiProperties.Listing listing = properties.getListing();
+        int pageSize = size == null ? listing.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > listing.getMaxPageSize()) {
+            throw new IllegalArgumentException(
+                    "La taille de page doit être comprise entre 1 et " + listing.getMaxPageSize());
+        }
+        return pageSize;
+    }
+
+
+    // page incomplète : plus rien après
+    private static UserPage page(List<UserResponse> items, int pageSize) {
+        Long nextCursor = items.size() < pageSize ? null : items.get(items.size() - 1).getId();
+        return new UserPage(items, nextCursor);
+    }
+
+
+    // la requête d'existence n'est faite que si le filtre de Bloom ne peut pas conclure
+    private boolean isTaken(String userName) {
+        return userName != null && usernameFilter.mightContain(userName) && userRepository.existsByUserName(userName);
+    }
+
+
+    private Map<String, String> validate(UserRequest request) {
+        Map<String, String> errors = new HashMap<>();
+        if (request == null) {
+            errors.put("error", "Le corps de la requête est requis");
+            return errors;
+        }
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<UserRequest> violation : violations) {
+            String field = violation.getPropertyPath().toString();
+            errors.put(field.isEmpty() ? "error" : field, violation.getMessage());
+        }
+        return errors;
+    }
+
+
+    private UserEntity loadForUpdate(Long id, Long expectedVersion) {
+        UserEntity entity = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+        if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+            throw new VersionMismatchException("L'utilisateur a été modifié depuis la version " + expectedVersion);
+        }
+        return entity;
+    }
+
+
+    // dirty checking + @DynamicUpdate : seules les colonnes réellement modifiées sont écrites,
+    // et une requête qui ne change rien ne produit ni UPDATE ni nouvelle version
+    private UserResponse applyUpdate(UserEntity entity, UserRequest request) {
+        if (!entity.getUserName().equals(request.getUsername()) && isTaken(request.getUsername())) {
+            throw new DuplicateResourceException(DUPLICATE_USERNAME);
+        }
+        entity.setUserName(request.getUsername());
+        entity.setBirthDate(request.getBirthdate());
+        entity.setCountry(Countries.normalize(request.getCountry()));
+        entity.setPhoneNumber(request.getPhone());
+        entity.setGender(parseGender(request));
+
+        // le flush renseigne la nouvelle version et lastModified, et fait remonter ici un conflit
+        // (version concurrente, nom d'utilisateur pris entre-temps)
+        userRepository.flush();
+        usernameFilter.put(entity.getUserName());
         return toResponse(entity);
     }
 
 
-    private UserResponse toResponse(UserEntity entity) {
+    private static UserRequest toRequest(UserEntity entity) {
+        return new UserRequest(entity.getUserName(), entity.getBirthDate(), entity.getCountry(),
+                entity.getPhoneNumber(), entity.getGender() == null ? null : entity.getGender().name());
+    }
+
+
+    private UserEntity toEntity(UserRequest request) {
+        // Créer l'entité
+        UserEntity entity = new UserEntity();
+        entity.setUserName(request.getUsername());
+        entity.setBirthDate(request.getBirthdate());
+        entity.setCountry(Countries.normalize(request.getCountry()));
+        entity.setPhoneNumber(request.getPhone());
+
+        // Gestion du genre : valeur déjà analysée par UserRequest (validée par @ValidGender)
+        entity.setGender(parseGender(request));
+        return entity;
+    }
+
+
+    // reste défensif si le service est appelé sans validation préalable
+    static Gender parseGender(UserRequest request) {
+        Gender gender = request.getParsedGender();
+        if (gender == null && request.getGender() != null && !request.getGender().isBlank()) {
+            throw new IllegalArgumentException("Gender invalide : '" + request.getGender() + "'");
+        }
+        return gender;
+    }
+
+
+    // visibilité package : utilisée par les benchmarks de mapping (src/jmh)
+    UserResponse toResponse(UserEntity entity) {
         String gender = entity.getGender() == null ? null : entity.getGender().name();
         return new UserResponse(
                 entity.getId(),
@@ -61,7 +374,9 @@ public class UserService {
                 entity.getBirthDate(),
                 entity.getCountry(),
                 entity.getPhoneNumber(),
-                gender
+                gender,
+                entity.getVersion(),
+                entity.getLastModified()
         );
     }
 }
@@ -0,0 +1,83 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom des noms d'utilisateur déjà enregistrés.
+ * "absent" est une certitude : la requête d'existence peut être évitée.
+ * "peut-être présent" impose de vérifier en base (faux positifs possibles).
+ * Thread-safe et sans verrou : les bits sont positionnés par CAS.
+ */
+@Component
+public class UsernameBloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    @Autowired
+    public UsernameBloomFilter(UserApiProperties properties) {
+        this(properties.getUsernameFilter().getExpectedInsertions(),
+                properties.getUsernameFilter().getFalsePositiveRate());
+    }
+
+    UsernameBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Dimensionnement du filtre de Bloom invalide");
+        }
+        // m = -n ln(p) / ln(2)^2 ; k = m/n ln(2)
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(index) & mask) == 0) {
+                words.accumulateAndGet(index, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    // FNV-1a 64 bits sur les caractères, suivi d'un mélange : aucune allocation
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
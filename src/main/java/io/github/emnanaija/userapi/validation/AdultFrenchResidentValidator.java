@@ -5,9 +5,13 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
 
 public class AdultFrenchResidentValidator implements ConstraintValidator<AdultFrenchResident, UserRequest> {
+
+    // date de naissance la plus récente autorisée ; recalculée au premier appel de chaque jour
+    private static volatile AdultCutoff cutoff = AdultCutoff.compute();
+
     @Override
     public boolean isValid(UserRequest req, ConstraintValidatorContext ctx) {
         if (req == null) return true;
@@ -19,15 +23,11 @@ public class AdultFrenchResidentValidator implements ConstraintValidator<AdultFr
             ctx.buildConstraintViolationWithTemplate("country obligatoire")
                     .addPropertyNode("country").addConstraintViolation();
             ok = false;
-        } else {
-            String countryLower = country.toLowerCase().trim();
-            // Accept "france" or "fr" (ISO code)
-            if (!countryLower.equals("france") && !countryLower.equals("fr")) {
-                ctx.disableDefaultConstraintViolation();
-                ctx.buildConstraintViolationWithTemplate("Seuls les résidents français peuvent s'inscrire")
-                        .addPropertyNode("country").addConstraintViolation();
-                ok = false;
-            }
+        } else if (!Countries.isFrance(country)) {
+            ctx.disableDefaultConstraintViolation();
+            ctx.buildConstraintViolationWithTemplate("Seuls les résidents français peuvent s'inscrire")
+                    .addPropertyNode("country").addConstraintViolation();
+            ok = false;
         }
         if (req.getBirthdate() == null) {
             ctx.disableDefaultConstraintViolation();
@@ -35,9 +35,8 @@ public class AdultFrenchResidentValidator implements ConstraintValidator<AdultFr
                     .addPropertyNode("birthdate").addConstraintViolation();
             return false;
         }
-        LocalDate today = LocalDate.now();
-        long age = ChronoUnit.YEARS.between(req.getBirthdate(), today);
-        if (age < 18) {
+        // majeur <=> né au plus tard le jour de la date limite (même résultat que YEARS.between >= 18)
+        if (req.getBirthdate().isAfter(adultCutoff())) {
             ctx.disableDefaultConstraintViolation();
             ctx.buildConstraintViolationWithTemplate("L'utilisateur doit être majeur (>=18 ans)")
                     .addPropertyNode("birthdate").addConstraintViolation();
@@ -45,4 +44,24 @@ public class AdultFrenchResidentValidator implements ConstraintValidator<AdultFr
         }
         return ok;
     }
+
+    static LocalDate adultCutoff() {
+        AdultCutoff current = cutoff;
+        if (System.currentTimeMillis() >= current.validUntil()) {
+            // course bénigne : deux threads peuvent recalculer la même valeur
+            current = AdultCutoff.compute();
+            cutoff = current;
+        }
+        return current.date();
+    }
+
+    private record AdultCutoff(LocalDate date, long validUntil) {
+
+        static AdultCutoff compute() {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            long nextMidnight = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new AdultCutoff(today.minusYears(18), nextMidnight);
+        }
+    }
 }
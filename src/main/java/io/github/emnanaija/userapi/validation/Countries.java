@@ -0,0 +1,45 @@
+package io.github.emnanaija.userapi.validation;
+
+/**
+ * Forme canonique du pays, appliquée à l'écriture et aux critères de recherche : la validation
+ * accepte "France" ou "FR" sans tenir compte de la casse ni des espaces, la base ne contient que "France".
+ */
+public final class Countries {
+
+    public static final String FRANCE = "France";
+
+    // valeurs acceptées pour le pays (comparaison insensible à la casse, espaces ignorés)
+    private static final String[] FRANCE_ALIASES = {"france", "fr"};
+
+    private Countries() {
+    }
+
+    public static boolean isFrance(String country) {
+        if (country == null) {
+            return false;
+        }
+        int start = 0;
+        int end = country.length();
+        while (start < end && country.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && country.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        for (String accepted : FRANCE_ALIASES) {
+            if (accepted.length() == length && country.regionMatches(true, start, accepted, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "France" pour toute écriture de la France, sinon la valeur sans espaces autour (null reste null)
+    public static String normalize(String country) {
+        if (country == null) {
+            return null;
+        }
+        return isFrance(country) ? FRANCE : country.strip();
+    }
+}
@@ -9,10 +9,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Annotation de validation pour vérifier qu'une String correspond à une valeur valide de l'enum Gender.
- * Accepte null (car le champ est optionnel).
+ * Annotation de validation pour vérifier que le genre d'un UserRequest correspond à une valeur valide
+ * de l'enum Gender. Accepte null (car le champ est optionnel). Posée sur la classe pour lire le genre
+ * déjà analysé ; la violation est rattachée au champ gender.
  */
-@Target({ ElementType.FIELD, ElementType.PARAMETER })
+@Target({ ElementType.TYPE })
 @Retention(RetentionPolicy.RUNTIME)
 @Constraint(validatedBy = ValidGenderValidator.class)
 public @interface ValidGender {
@@ -1,14 +1,15 @@
 package io.github.emnanaija.userapi.validation;
 
-import io.github.emnanaija.userapi.enums.Gender;
+import io.github.emnanaija.userapi.dto.UserRequest;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 /**
- * Validateur pour vérifier qu'une String correspond à une valeur valide de l'enum Gender.
- * Accepte null car le champ est optionnel.
+ * Validateur pour vérifier que le genre d'un UserRequest correspond à une valeur valide de l'enum Gender.
+ * Accepte null car le champ est optionnel. Réutilise le genre déjà analysé par UserRequest.setGender :
+ * la chaîne n'est pas analysée une seconde fois.
  */
-public class ValidGenderValidator implements ConstraintValidator<ValidGender, String> {
+public class ValidGenderValidator implements ConstraintValidator<ValidGender, UserRequest> {
     
     @Override
     public void initialize(ValidGender constraintAnnotation) {
@@ -16,24 +17,23 @@ public class ValidGenderValidator implements ConstraintValidator<ValidGender, St
     }
     
     @Override
-    public boolean isValid(String value, ConstraintValidatorContext context) {
+    public boolean isValid(UserRequest request, ConstraintValidatorContext context) {
         // Le champ est optionnel, donc null est accepté
-        if (value == null || value.trim().isEmpty()) {
+        String value = request == null ? null : request.getGender();
+        if (value == null || value.isBlank()) {
             return true;
         }
         
-        // Vérifier si la valeur correspond à un enum Gender valide (insensible à la casse)
-        try {
-            Gender.valueOf(value.toUpperCase().trim());
+        // parsedGender n'est null pour une valeur renseignée que si elle ne correspond à aucun Gender
+        if (request.getParsedGender() != null) {
             return true;
-        } catch (IllegalArgumentException e) {
-            // Construire un message d'erreur avec les valeurs acceptées
-            context.disableDefaultConstraintViolation();
-            context.buildConstraintViolationWithTemplate(
-                    "Gender invalide : '" + value + "'. Valeurs acceptées : MALE, FEMALE, OTHER"
-            ).addConstraintViolation();
-            return false;
         }
+
+        // Construire un message d'erreur avec les valeurs acceptées, rattaché au champ gender
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(
+                "Gender invalide : '" + value + "'. Valeurs acceptées : MALE, FEMALE, OTHER"
+        ).addPropertyNode("gender").addConstraintViolation();
+        return false;
     }
 }
-
@@ -0,0 +1,29 @@
+-- Schema initial : utilisateurs (version optimiste, index de recherche) et outbox transactionnelle
+
+create sequence user_seq start with 1 increment by 50;
+create sequence outbox_seq start with 1 increment by 50;
+
+create table user_entity (
+    id bigint not null,
+    user_name varchar(255) not null,
+    birth_date date not null,
+    country varchar(255) not null,
+    phone_number varchar(255),
+    gender enum ('FEMALE','MALE','OTHER'),
+    version bigint not null,
+    last_modified timestamp(6) with time zone not null,
+    primary key (id),
+    constraint ux_user_entity_user_name unique (user_name)
+);
+
+create index ix_user_entity_gender_birth_date on user_entity (gender, birth_date);
+create index ix_user_entity_country_birth_date on user_entity (country, birth_date);
+
+create table outbox_event (
+    id bigint not null,
+    event_type varchar(64) not null,
+    aggregate_id bigint not null,
+    payload varchar(2000) not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
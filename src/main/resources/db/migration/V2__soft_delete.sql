@@ -0,0 +1,6 @@
+-- Suppression logique : deleted_at renseigné = utilisateur masqué, en attente de purge définitive
+
+alter table user_entity add column deleted_at timestamp(6) with time zone;
+
+-- lots de la purge : lignes supprimées depuis plus longtemps que la rétention, dans l'ordre
+create index ix_user_entity_deleted_at on user_entity (deleted_at);
@@ -0,0 +1,9 @@
+-- Pays sous une seule forme canonique ("France") : la recherche par pays est une égalité simple
+-- sur l'index (country, birth_date). Nouvelle version pour invalider les ETag déjà distribués.
+
+update user_entity
+set country = 'France',
+    version = version + 1,
+    last_modified = current_timestamp
+where lower(trim(country)) in ('france', 'fr')
+  and country <> 'France';
@@ -0,0 +1,13 @@
+-- La recherche pagine par id (id > curseur, tri par id) : un index (gender, birth_date) ne fournit pas
+-- cet ordre, H2 lisait alors toutes les lignes du genre puis les triait à chaque page.
+-- (gender, id) sert à la fois l'égalité, le curseur et le tri. Le pays n'est plus indexé : depuis V3
+-- toutes les lignes valent "France", le filtre ne sélectionne rien et la clé primaire suffit.
+-- ix_user_entity_deleted_at disparaît aussi : H2 traite "deleted_at is null" (@SQLRestriction) comme une
+-- égalité sur cet index et le préférait à la clé primaire, soit toute la table à chaque page ; il ne
+-- servait pas la purge non plus, "deleted_at < ?" commençant par les lignes NULL.
+
+drop index ix_user_entity_gender_birth_date;
+drop index ix_user_entity_country_birth_date;
+drop index ix_user_entity_deleted_at;
+
+create index ix_user_entity_gender_id on user_entity (gender, id);
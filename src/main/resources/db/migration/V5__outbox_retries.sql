@@ -0,0 +1,6 @@
+-- Outbox : un événement refusé par le sink est réessayé seul avec un délai croissant puis mis de côté
+-- (DEAD) après userapi.outbox.max-attempts, au lieu de bloquer la tête de file à chaque passage
+
+alter table outbox_event add column attempts integer default 0 not null;
+alter table outbox_event add column next_attempt_at timestamp(6) with time zone;
+alter table outbox_event add column status enum ('PENDING','DEAD') default 'PENDING' not null;
@@ -0,0 +1,139 @@
+package io.github.emnanaija.userapi.aop;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.exception.GlobalExceptionHandler;
+import io.github.emnanaija.userapi.exception.ResourceNotFoundException;
+import io.github.emnanaija.userapi.outbox.OutboxWriter;
+import io.github.emnanaija.userapi.repository.UserRepository;
+import io.github.emnanaija.userapi.service.UserService;
+import io.github.emnanaija.userapi.service.UsernameBloomFilter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class LoggingAspectTest {
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserService proxiedService(UserApiProperties.Tracing.Mode mode, double sampleRate) {
+        UserApiProperties properties = new UserApiProperties();
+        properties.getTracing().setMode(mode);
+        properties.getTracing().setSampleRate(sampleRate);
+        UserService target = new UserService(userRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), properties,
+                new UsernameBloomFilter(properties), Mockito.mock(ApplicationEventPublisher.class),
+                Mockito.mock(OutboxWriter.class));
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(properties, meterRegistry));
+        return factory.getProxy();
+    }
+
+    private void givenUser() {
+        UserResponse user = new UserResponse(1L, "Jean", LocalDate.of(1990, 1, 1), "France", null, (String) null);
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void shouldRecordDurationInHistogramInFullMode() {
+        givenUser();
+        UserService service = proxiedService(UserApiProperties.Tracing.Mode.FULL, 0.0);
+
+        service.getUser(1L);
+        service.getUser(1L);
+
+        Timer timer = meterRegistry.find(LoggingAspect.TIMER_NAME)
+                .tag("class", "UserService").tag("method", "getUser").timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void shouldNotTraceWhenOff() {
+        givenUser();
+        UserService service = proxiedService(UserApiProperties.Tracing.Mode.OFF, 1.0);
+
+        assertEquals("Jean", service.getUser(1L).getUsername());
+        assertNull(meterRegistry.find(LoggingAspect.TIMER_NAME).timer());
+    }
+
+    @Test
+    void shouldOnlyTraceSampledCalls() {
+        givenUser();
+        UserService never = proxiedService(UserApiProperties.Tracing.Mode.SAMPLED, 0.0);
+        never.getUser(1L);
+        assertNull(meterRegistry.find(LoggingAspect.TIMER_NAME).timer());
+
+        UserService always = proxiedService(UserApiProperties.Tracing.Mode.SAMPLED, 1.0);
+        always.getUser(1L);
+        assertEquals(1, meterRegistry.find(LoggingAspect.TIMER_NAME).timer().count());
+    }
+
+    @Test
+    void shouldLogStackTraceOnlyForUnexpectedExceptions() {
+        Logger aspectLogger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        aspectLogger.addAppender(appender);
+        try {
+            UserService service = proxiedService(UserApiProperties.Tracing.Mode.FULL, 0.0);
+            when(userRepository.findResponseById(1L)).thenReturn(Optional.empty());
+            assertThrows(ResourceNotFoundException.class, () -> service.getUser(1L));
+            when(userRepository.findResponseById(2L)).thenThrow(new IllegalStateException("base indisponible"));
+            assertThrows(IllegalStateException.class, () -> service.getUser(2L));
+
+            List<ILoggingEvent> errors = appender.list.stream()
+                    .filter(event -> event.getLevel() == Level.ERROR)
+                    .toList();
+            assertEquals(1, errors.size());
+            assertEquals("base indisponible", errors.get(0).getThrowableProxy().getMessage());
+        } finally {
+            aspectLogger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    void shouldNotTraceTheExceptionHandler() {
+        Logger aspectLogger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        aspectLogger.addAppender(appender);
+        try {
+            UserApiProperties properties = new UserApiProperties();
+            properties.getTracing().setMode(UserApiProperties.Tracing.Mode.FULL);
+            AspectJProxyFactory factory = new AspectJProxyFactory(new GlobalExceptionHandler(meterRegistry, properties));
+            factory.setProxyTargetClass(true);
+            factory.addAspect(new LoggingAspect(properties, meterRegistry));
+            GlobalExceptionHandler handler = factory.getProxy();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(HttpStatus.NOT_FOUND,
+                        handler.handleNotFound(new ResourceNotFoundException("Utilisateur non trouvé")).getStatusCode());
+            }
+
+            assertTrue(appender.list.isEmpty(), () -> appender.list.toString());
+            assertNull(meterRegistry.find(LoggingAspect.TIMER_NAME).timer());
+        } finally {
+            aspectLogger.detachAppender(appender);
+        }
+    }
+}
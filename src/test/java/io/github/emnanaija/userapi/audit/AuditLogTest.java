@@ -0,0 +1,126 @@
+package io.github.emnanaija.userapi.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuditLog auditLog(UserApiProperties.Audit.Overflow overflow, int capacity) {
+        UserApiProperties properties = new UserApiProperties();
+        properties.getAudit().setDirectory(directory);
+        properties.getAudit().setOverflow(overflow);
+        properties.getAudit().setQueueCapacity(capacity);
+        properties.getAudit().setFsync(UserApiProperties.Audit.Fsync.EVERY_BATCH);
+        return new AuditLog(properties, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void shouldWriteEveryQueuedEventToSegmentOnStop() throws Exception {
+        AuditLog auditLog = auditLog(UserApiProperties.Audit.Overflow.BLOCK, 1024);
+        auditLog.start();
+        for (long id = 1; id <= 100; id++) {
+            assertTrue(auditLog.offer(new UserCreated(id, "user" + id, Instant.now())));
+        }
+        auditLog.stop();
+
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> segments = Files.list(directory).sorted()) {
+            for (Path segment : segments.toList()) {
+                lines.addAll(Files.readAllLines(segment));
+            }
+        }
+        assertEquals(100, lines.size());
+        assertEquals("user1", objectMapper.readTree(lines.get(0)).get("username").asText());
+        assertEquals(100, objectMapper.readTree(lines.get(99)).get("id").asLong());
+        assertEquals(100.0, meterRegistry.get("userapi.audit.events.written").counter().count());
+    }
+
+    @Test
+    void shouldDropEventsWhenQueueIsFull() {
+        // writer non démarré : la file se remplit
+        AuditLog auditLog = auditLog(UserApiProperties.Audit.Overflow.DROP, 2);
+
+        assertTrue(auditLog.offer(new UserCreated(1L, "a", Instant.now())));
+        assertTrue(auditLog.offer(new UserCreated(2L, "b", Instant.now())));
+        assertFalse(auditLog.offer(new UserCreated(3L, "c", Instant.now())));
+
+        assertEquals(2, auditLog.queued());
+        assertEquals(1.0, meterRegistry.get("userapi.audit.events.dropped").counter().count());
+    }
+
+    @Test
+    void shouldDropWithoutWaitingOnceTheSegmentWriterHasFailed() throws Exception {
+        UserApiProperties properties = new UserApiProperties();
+        properties.getAudit().setDirectory(directory);
+        // segment plus petit qu'un enregistrement : le premier append échoue (IOException)
+        properties.getAudit().setSegmentSize(DataSize.ofBytes(16));
+        properties.getAudit().setOfferTimeout(Duration.ofSeconds(5));
+        AuditLog auditLog = new AuditLog(properties, objectMapper, meterRegistry);
+
+        assertWriterFailsAndDropsWithoutWaiting(auditLog);
+    }
+
+    @Test
+    void shouldSurviveRuntimeExceptionsFromEncoding() throws Exception {
+        ObjectWriter failingWriter = mock(ObjectWriter.class);
+        when(failingWriter.writeValueAsBytes(any())).thenThrow(new IllegalStateException("encodage impossible"));
+        ObjectMapper failingMapper = new ObjectMapper() {
+            @Override
+            public ObjectWriter writerFor(Class<?> type) {
+                return failingWriter;
+            }
+        };
+        UserApiProperties properties = new UserApiProperties();
+        properties.getAudit().setDirectory(directory);
+        properties.getAudit().setOfferTimeout(Duration.ofSeconds(5));
+        AuditLog auditLog = new AuditLog(properties, failingMapper, meterRegistry);
+
+        assertWriterFailsAndDropsWithoutWaiting(auditLog);
+    }
+
+    private void assertWriterFailsAndDropsWithoutWaiting(AuditLog auditLog) throws InterruptedException {
+        auditLog.start();
+        assertTrue(auditLog.offer(new UserCreated(1L, "premier", Instant.now())));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (auditLog.isWriterAlive() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertFalse(auditLog.isWriterAlive());
+        assertEquals(0.0, meterRegistry.get("userapi.audit.writer.alive").gauge().value());
+        assertEquals(0, auditLog.queued(), "l'événement en cours d'écriture est décompté");
+
+        // plus de consommateur : abandon immédiat, sans réserver de place ni attendre offer-timeout
+        long start = System.nanoTime();
+        for (long id = 2; id <= 10; id++) {
+            assertFalse(auditLog.offer(new UserCreated(id, "suivant", Instant.now())));
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertEquals(0, auditLog.queued());
+        assertEquals(10.0, meterRegistry.get("userapi.audit.events.dropped").counter().count());
+        auditLog.stop();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.emnanaija.userapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// export Prometheus réel (désactivé par défaut dans les tests), sur une base dédiée
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricsdb")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldExportSpringAndHandBuiltCacheMeters() throws Exception {
+        String created = mockMvc.perform(post("/api/users")
+                        .header("Idempotency-Key", "scrape-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequest("Scrape", LocalDate.of(1990, 5, 15), "France", null, null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(created, UserResponse.class).getId();
+        mockMvc.perform(get("/api/users/" + id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // un seul jeu de clés de tags par nom de meter, sinon Prometheus écarte l'un des enregistrements
+        for (String cache : List.of("users", "userVersions", "idempotency", "userResponseBytes")) {
+            assertTrue(scrape.contains("cache_gets_total{cache=\"" + cache + "\""),
+                    "meters cache.gets absents pour le cache " + cache);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.emnanaija.userapi.config;
+
+import io.github.emnanaija.userapi.aop.LoggingAspect;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserVersion;
+import io.github.emnanaija.userapi.validation.AdultFrenchResident;
+import io.github.emnanaija.userapi.validation.AdultFrenchResidentValidator;
+import io.github.emnanaija.userapi.validation.ValidGenderValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserApiRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void shouldRegisterReflectionForProjectionsValidatorsAndAspect() {
+        new UserApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserResponse.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserVersion.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserResponse.class, "getUsername").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AdultFrenchResidentValidator.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ValidGenderValidator.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(AdultFrenchResident.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(LoggingAspect.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.emnanaija.userapi.controller;
+
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import io.github.emnanaija.userapi.outbox.OutboxWriter;
+import io.github.emnanaija.userapi.repository.OutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// base dédiée (JDBC et R2DBC sur la même base H2) et publication d'outbox espacée : les lignes restent visibles
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "userapi.reactive.r2dbc-url=r2dbc:h2:mem:///reactivedb",
+        "userapi.outbox.poll-interval=1h"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveUserControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Test
+    void shouldCreateAndGetUser() {
+        UserRequest request = new UserRequest("ReactifJean", LocalDate.of(1990, 5, 15), "France", "0123456789", "male");
+
+        UserResponse created = webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserResponse.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created);
+        assertNotNull(created.getId());
+        assertEquals("MALE", created.getGender());
+
+        webTestClient.get().uri("/api/users/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.username").isEqualTo("ReactifJean")
+                .jsonPath("$.birthdate").isEqualTo("1990-05-15")
+                .jsonPath("$.gender").isEqualTo("MALE");
+    }
+
+    @Test
+    void shouldKeepValidationErrorContract() {
+        UserRequest request = new UserRequest("Carlos", LocalDate.of(1990, 1, 1), "Spain", null, null);
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.country").isEqualTo("Seuls les résidents français peuvent s'inscrire");
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenUserDoesNotExist() {
+        webTestClient.get().uri("/api/users/{id}", 987654L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Utilisateur non trouvé");
+    }
+
+    @Test
+    void shouldReplayIdempotentCreateAndWriteOneOutboxEvent() {
+        UserRequest request = new UserRequest("ReactifRejeu", LocalDate.of(1990, 5, 15), "France", null, null);
+
+        UserResponse created = webTestClient.post().uri("/api/users")
+                .header("Idempotency-Key", "reactif-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Idempotent-Replayed", "false")
+                .expectBody(UserResponse.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created);
+        webTestClient.post().uri("/api/users")
+                .header("Idempotency-Key", "reactif-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId());
+
+        // écrit dans la transaction R2DBC de l'insertion, comme côté JPA
+        List<OutboxEvent> events = outboxRepository.findAll().stream()
+                .filter(event -> created.getId().equals(event.getAggregateId()))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(OutboxWriter.USER_CREATED, events.get(0).getEventType());
+        assertTrue(events.get(0).getPayload().contains("ReactifRejeu"));
+    }
+}
@@ -1,19 +1,30 @@
 package io.github.emnanaija.userapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import io.github.emnanaija.userapi.dto.UserRequest;
 import io.github.emnanaija.userapi.dto.UserResponse;
 import io.github.emnanaija.userapi.repository.UserRepository;
+import io.github.emnanaija.userapi.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,9 +43,28 @@ class UserControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserResponseBytesCache responseBytesCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // SQL natif : deleteAll() passe par @SQLRestriction et laisserait les utilisateurs supprimés logiquement
     @BeforeEach
     void setUp() {
-        userRepository.deleteAll();
+        jdbcTemplate.update("delete from user_entity");
     }
 
     // -----------------------------
@@ -98,7 +128,17 @@ class UserControllerIntegrationTest {
     void shouldReturnNotFoundWhenUserDoesNotExist() throws Exception {
         mockMvc.perform(get("/api/users/{id}", 999L))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.error").exists());
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Utilisateur non trouvé"))
+                .andExpect(jsonPath("$.type").doesNotExist());
+
+        // même corps, même pour un client qui ne demande que du CBOR
+        mockMvc.perform(get("/api/users/{id}", 999L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404));
     }
 
     // -----------------------------
@@ -163,4 +203,497 @@ class UserControllerIntegrationTest {
         String responseBody = result.getResponse().getContentAsString();
         assertTrue(responseBody.contains("passé") || responseBody.contains("birthdate"));
     }
+
+    // -----------------------------
+    // Test 7 : Import en masse avec erreurs par élément
+    // -----------------------------
+    @Test
+    void shouldCreateUsersInBatchAndReportItemErrors() throws Exception {
+        UserRequest valid1 = new UserRequest("Lot1", LocalDate.of(1990, 1, 1), "France", null, "MALE");
+        UserRequest invalid = new UserRequest("Lot2", LocalDate.of(1990, 1, 1), "Spain", null, "MALE");
+        UserRequest valid2 = new UserRequest("Lot3", LocalDate.of(1980, 6, 1), "FR", "0123456789", null);
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid1, invalid, valid2))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.users[0].id").exists())
+                .andExpect(jsonPath("$.users[1].username").value("Lot3"))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].errors.country").exists());
+
+        assertEquals(2, userRepository.count());
+    }
+
+    // -----------------------------
+    // Test 8 : Lecture servie par le cache après création (write-through)
+    // -----------------------------
+    @Test
+    void shouldServeUserFromCacheAfterCreation() throws Exception {
+        UserRequest request = new UserRequest("CacheUser", LocalDate.of(1990, 1, 1), "France", null, "OTHER");
+        MvcResult createResult = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long userId = objectMapper.readValue(
+                createResult.getResponse().getContentAsString(), UserResponse.class).getId();
+
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(UserService.USERS_CACHE);
+        assertNotNull(cache);
+        long hitsBefore = cache.getNativeCache().stats().hitCount();
+
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("CacheUser"));
+
+        assertEquals(hitsBefore + 1, cache.getNativeCache().stats().hitCount());
+    }
+
+    // -----------------------------
+    // Test 9 : Métriques - échecs de validation par champ et 404
+    // -----------------------------
+    @Test
+    void shouldCountValidationFailuresByFieldAndNotFound() throws Exception {
+        double countryFailures = counter("userapi.validation.failures", "field", "country");
+        double notFound = counter("userapi.not.found");
+
+        UserRequest request = new UserRequest("Carlos", LocalDate.of(1990, 1, 1), "Spain", null, null);
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/{id}", 424242L))
+                .andExpect(status().isNotFound());
+
+        assertEquals(countryFailures + 1, counter("userapi.validation.failures", "field", "country"));
+        assertEquals(notFound + 1, counter("userapi.not.found"));
+        // GET /{id} passe d'abord par l'index des versions (corps pré-sérialisés)
+        assertNotNull(meterRegistry.find("userapi.service").tag("method", "getUserVersion").timer());
+    }
+
+    private double counter(String name, String... tags) {
+        var counter = meterRegistry.find(name).tags(tags).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    // -----------------------------
+    // Test 10 : Listing paginé par clé et export NDJSON
+    // -----------------------------
+    @Test
+    void shouldListUsersWithKeysetPaginationAndExportNdjson() throws Exception {
+        List<UserRequest> requests = List.of(
+                new UserRequest("Page1", LocalDate.of(1990, 1, 1), "France", null, null),
+                new UserRequest("Page2", LocalDate.of(1990, 1, 1), "France", null, null),
+                new UserRequest("Page3", LocalDate.of(1990, 1, 1), "France", null, null));
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated());
+
+        MvcResult firstPage = mockMvc.perform(get("/api/users").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].username").value("Page1"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        long cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/users").param("afterId", String.valueOf(cursor)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].username").value("Page3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        MvcResult export = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Page2", objectMapper.readValue(lines[1], UserResponse.class).getUsername());
+    }
+
+    // -----------------------------
+    // Test 11 : Nom d'utilisateur déjà pris
+    // -----------------------------
+    @Test
+    void shouldRejectDuplicateUsernameWithConflict() throws Exception {
+        UserRequest request = new UserRequest("Doublon", LocalDate.of(1990, 1, 1), "France", null, null);
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").exists());
+    }
+
+    // -----------------------------
+    // Test 12 : Idempotency-Key - un retry rejoue la première réponse
+    // -----------------------------
+    @Test
+    void shouldReplayResponseForSameIdempotencyKey() throws Exception {
+        UserRequest request = new UserRequest("Idempotent", LocalDate.of(1990, 1, 1), "France", null, null);
+        String body = objectMapper.writeValueAsString(request);
+
+        MvcResult first = mockMvc.perform(post("/api/users")
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/api/users")
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(1, userRepository.count());
+
+        request.setUsername("Autre");
+        mockMvc.perform(post("/api/users")
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    // -----------------------------
+    // Test 13 : GET conditionnel - ETag fort puis 304
+    // -----------------------------
+    @Test
+    void shouldAnswerNotModifiedWhenETagMatches() throws Exception {
+        UserRequest request = new UserRequest("Sondeur", LocalDate.of(1990, 1, 1), "France", null, null);
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long id = objectMapper.readValue(created.getResponse().getContentAsString(), UserResponse.class).getId();
+
+        MvcResult first = mockMvc.perform(get("/api/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals("\"0\"", etag);
+
+        mockMvc.perform(get("/api/users/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/users/" + id).header("If-None-Match", "\"41\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("Sondeur"));
+        mockMvc.perform(get("/api/users/999999").header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    // -----------------------------
+    // Test 14 : Recherche multicritère paginée
+    // -----------------------------
+    @Test
+    void shouldSearchUsersByGenderBirthDateRangeAndPrefix() throws Exception {
+        userService.createUser(new UserRequest("Alice", LocalDate.of(1985, 3, 1), "France", null, "FEMALE"));
+        userService.createUser(new UserRequest("Amelie", LocalDate.of(1992, 6, 1), "France", null, "female"));
+        userService.createUser(new UserRequest("Anna", LocalDate.of(1995, 9, 1), "France", null, "FEMALE"));
+        userService.createUser(new UserRequest("Arthur", LocalDate.of(1993, 1, 1), "France", null, "MALE"));
+        userService.createUser(new UserRequest("Bea_x", LocalDate.of(1993, 1, 1), "FR", null, "FEMALE"));
+
+        MvcResult firstPage = mockMvc.perform(get("/api/users/search")
+                        .param("gender", "female")
+                        .param("birthDateFrom", "1990-01-01")
+                        .param("birthDateTo", "1999-12-31")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].username").value("Amelie"))
+                .andExpect(jsonPath("$.items[1].username").value("Anna"))
+                .andReturn();
+        long cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("gender", "FEMALE")
+                        .param("birthDateFrom", "1990-01-01")
+                        .param("birthDateTo", "1999-12-31")
+                        .param("afterId", String.valueOf(cursor))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].username").value("Bea_x"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/users/search").param("usernamePrefix", "A").param("country", "France"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4));
+        // pays normalisé à l'écriture comme dans le critère : casse, espaces et "FR" indifférents
+        userService.createUser(new UserRequest("Cyril", LocalDate.of(1991, 1, 1), " FRANCE ", null, null));
+        userService.createUser(new UserRequest("Chloe", LocalDate.of(1991, 1, 1), "france", null, null));
+        mockMvc.perform(get("/api/users/search").param("usernamePrefix", "C").param("country", "fr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].country").value("France"))
+                .andExpect(jsonPath("$.items[1].country").value("France"));
+        mockMvc.perform(get("/api/users/search").param("country", "FRANCE"))
+                .andExpect(jsonPath("$.items.length()").value(7));
+        // '_' est littéral dans le préfixe
+        mockMvc.perform(get("/api/users/search").param("usernamePrefix", "Bea_"))
+                .andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get("/api/users/search").param("gender", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -----------------------------
+    // Test 15 : Négociation CBOR, JSON par défaut
+    // -----------------------------
+    @Test
+    void shouldExchangeCborWhenRequestedAndJsonByDefault() throws Exception {
+        ObjectMapper cbor = new CBORMapper().findAndRegisterModules();
+        UserRequest request = new UserRequest("Binaire", LocalDate.of(1990, 5, 15), "France", null, "OTHER");
+
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        UserResponse response = cbor.readValue(created.getResponse().getContentAsByteArray(), UserResponse.class);
+        assertEquals("Binaire", response.getUsername());
+        assertEquals(LocalDate.of(1990, 5, 15), response.getBirthdate());
+
+        mockMvc.perform(get("/api/users/" + response.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.birthdate").value("1990-05-15"));
+    }
+
+    // -----------------------------
+    // Test 16 : Corps pré-sérialisés, retirés au commit de la modification
+    // -----------------------------
+    @Test
+    void shouldServePreSerializedBodyAndEvictItOnCommit() throws Exception {
+        UserRequest request = new UserRequest("Serialise", LocalDate.of(1990, 5, 15), "France", null, "FEMALE");
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        UserResponse response = objectMapper.readValue(created.getResponse().getContentAsString(), UserResponse.class);
+        Long id = response.getId();
+
+        mockMvc.perform(get("/api/users/" + id).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.username").value("Serialise"));
+
+        // l'éviction suit la transaction du service, quel que soit l'appelant
+        userService.updateUser(id, new UserRequest("Renomme", LocalDate.of(1990, 5, 15), "France", null, "FEMALE"), null);
+        AtomicBoolean reloaded = new AtomicBoolean();
+        responseBytesCache.get(id, 0L, () -> {
+            reloaded.set(true);
+            return response;
+        });
+        assertTrue(reloaded.get());
+        responseBytesCache.evict(id);
+
+        // un client CBOR repasse par la négociation habituelle
+        Long otherId = userService.createUser(new UserRequest("Binaire", LocalDate.of(1990, 5, 15), "France", null, "MALE")).getId();
+        MvcResult binary = mockMvc.perform(get("/api/users/" + otherId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        UserResponse decoded = new CBORMapper().findAndRegisterModules()
+                .readValue(binary.getResponse().getContentAsByteArray(), UserResponse.class);
+        assertEquals("Binaire", decoded.getUsername());
+    }
+
+    // -----------------------------
+    // Test 17 : Métriques du pool JDBC
+    // -----------------------------
+    @Test
+    void shouldExposePoolSaturationAndAcquireTime() throws Exception {
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk());
+
+        var saturation = meterRegistry.find("userapi.db.pool.saturation").tag("pool", "userapi").gauge();
+        assertNotNull(saturation);
+        assertTrue(saturation.value() >= 0 && saturation.value() <= 1);
+        var acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "userapi").timer();
+        assertNotNull(acquire);
+        assertTrue(acquire.count() > 0);
+    }
+
+    // -----------------------------
+    // Test 18 : PUT avec If-Match - nouvelle version, caches invalidés, 412 sur version périmée
+    // -----------------------------
+    @Test
+    void shouldReplaceUserWithOptimisticLockingAndInvalidateCaches() throws Exception {
+        Long id = create(new UserRequest("Avant", LocalDate.of(1990, 5, 15), "France", null, "MALE"));
+        // remplit les caches (réponse, octets pré-sérialisés, index des versions)
+        mockMvc.perform(get("/api/users/" + id))
+                .andExpect(header().string("ETag", "\"0\""));
+
+        UserRequest replacement = new UserRequest("Apres", LocalDate.of(1985, 1, 1), "FR", "0612345678", null);
+        mockMvc.perform(put("/api/users/" + id)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(replacement)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.username").value("Apres"))
+                .andExpect(jsonPath("$.phone").value("0612345678"));
+
+        mockMvc.perform(get("/api/users/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.username").value("Apres"))
+                .andExpect(jsonPath("$.gender").doesNotExist());
+
+        mockMvc.perform(put("/api/users/" + id)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(replacement)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequest("Apres", LocalDate.now().minusYears(10), "France", null, null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.birthdate").exists());
+        mockMvc.perform(put("/api/users/999999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(replacement)))
+                .andExpect(status().isNotFound());
+    }
+
+    // -----------------------------
+    // Test 19 : PATCH (merge patch) - champs absents conservés, revalidation, aucune écriture à vide
+    // -----------------------------
+    @Test
+    void shouldPatchOnlyGivenFieldsAndRevalidateMergedUser() throws Exception {
+        Long id = create(new UserRequest("Partiel", LocalDate.of(1990, 5, 15), "France", "0612345678", "FEMALE"));
+        Long otherId = create(new UserRequest("Autre", LocalDate.of(1990, 5, 15), "France", null, null));
+
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(UserController.MERGE_PATCH_JSON)
+                        .content("{\"phone\": null, \"gender\": \"other\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.username").value("Partiel"))
+                .andExpect(jsonPath("$.phone").doesNotExist())
+                .andExpect(jsonPath("$.gender").value("OTHER"));
+
+        // même valeur : rien n'est écrit, la version reste la même
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"country\": \"France\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // le résultat fusionné n'est plus un résident français : 400, rien n'est modifié
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"country\": \"Spain\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.country").exists());
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gender\": \"UNKNOWN\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.gender").exists());
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"Autre\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/api/users/" + id)
+                        .header("If-Match", "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\": \"0700000000\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("France", userService.getUser(id).getCountry());
+        assertEquals(1L, userService.getUserVersion(id).getVersion());
+        assertEquals(0L, userService.getUserVersion(otherId).getVersion());
+    }
+
+    // -----------------------------
+    // Test 20 : DELETE - suppression logique, l'utilisateur disparaît de toutes les lectures
+    // -----------------------------
+    @Test
+    void shouldSoftDeleteUserAndHideItFromEveryRead() throws Exception {
+        Long id = create(new UserRequest("Efface", LocalDate.of(1990, 5, 15), "France", null, "MALE"));
+        mockMvc.perform(get("/api/users/" + id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/users/" + id).header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/users/" + id).header("If-Match", "\"0\""))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/users/" + id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users"))
+                .andExpect(jsonPath("$.items[?(@.id == " + id + ")]").isEmpty());
+        mockMvc.perform(get("/api/users/search").param("gender", "MALE"))
+                .andExpect(jsonPath("$.items[?(@.id == " + id + ")]").isEmpty());
+        mockMvc.perform(patch("/api/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\": \"0612345678\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/users/" + id))
+                .andExpect(status().isNotFound());
+
+        // la ligne reste en base jusqu'à la purge
+        assertEquals(1, userRepository.countSoftDeleted());
+    }
+
+    // -----------------------------
+    // Test 21 : lecture concurrente d'une modification non validée, les caches suivent le commit
+    // -----------------------------
+    @Test
+    void shouldNotKeepRowsReadBeforeTheCommitOfAnUpdate() throws Exception {
+        Long id = create(new UserRequest("Concurrent", LocalDate.of(1990, 5, 15), "France", null, "MALE"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            userService.updateUser(id, new UserRequest("Concurrent", LocalDate.of(1990, 5, 15), "France", "0612345678", "MALE"), 0L);
+            // un autre thread lit la ligne encore validée et la remet en cache avant le commit
+            CompletableFuture.runAsync(() -> {
+                assertEquals(0L, userService.getUserVersion(id).getVersion());
+                assertNull(userService.getUser(id).getPhone());
+            }).join();
+        });
+
+        assertEquals(1L, userService.getUserVersion(id).getVersion());
+        assertEquals("0612345678", userService.getUser(id).getPhone());
+        mockMvc.perform(get("/api/users/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    private Long create(UserRequest request) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(created.getResponse().getContentAsString(), UserResponse.class).getId();
+    }
 }
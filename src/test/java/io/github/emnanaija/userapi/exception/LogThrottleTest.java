@@ -0,0 +1,24 @@
+package io.github.emnanaija.userapi.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogThrottleTest {
+
+    @Test
+    void shouldLetOneMessageThroughPerIntervalAndReportSkippedOnes() throws Exception {
+        LogThrottle throttle = new LogThrottle(Duration.ofMillis(200));
+
+        assertEquals(0, throttle.acquire());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(LogThrottle.SKIP, throttle.acquire());
+        }
+
+        Thread.sleep(250);
+        assertEquals(5, throttle.acquire(), "le message suivant signale les 5 messages écartés");
+        assertEquals(LogThrottle.SKIP, throttle.acquire());
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.emnanaija.userapi.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemBodiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldSerializeCompactProblemDetailsOnceAndReuseThem() throws Exception {
+        byte[] body = ProblemBodies.of(HttpStatus.NOT_FOUND, "Utilisateur non trouvé");
+
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals("Not Found", json.get("title").asText());
+        assertEquals(404, json.get("status").asInt());
+        assertEquals("Utilisateur non trouvé", json.get("detail").asText());
+        assertFalse(json.has("type"), "type omis : about:blank par défaut");
+        assertFalse(json.has("errors"));
+
+        assertSame(body, ProblemBodies.of(HttpStatus.NOT_FOUND, "Utilisateur non trouvé"));
+    }
+
+    @Test
+    void shouldListFieldErrorsWithoutPoolingThem() throws Exception {
+        byte[] body = ProblemBodies.write(HttpStatus.BAD_REQUEST, "Champs invalides", Map.of("country", "France uniquement"));
+
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals(400, json.get("status").asInt());
+        assertEquals("France uniquement", json.get("errors").get("country").asText());
+
+        assertNotSame(body, ProblemBodies.write(HttpStatus.BAD_REQUEST, "Champs invalides",
+                Map.of("country", "France uniquement")));
+    }
+
+    @Test
+    void shouldPoolOnlyBodiesWithAFixedServerMessage() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), new UserApiProperties());
+        byte[] notFound = handler.handleNotFound(new ResourceNotFoundException("Utilisateur non trouvé")).getBody();
+
+        // messages reprenant la saisie du client : un corps par réponse, rien n'entre dans le pool
+        byte[] first = handler.handleIllegalArgument(new IllegalArgumentException("Gender invalide : x0")).getBody();
+        assertNotSame(first, handler.handleIllegalArgument(new IllegalArgumentException("Gender invalide : x0")).getBody());
+        for (int i = 1; i < 5_000; i++) {
+            handler.handleIllegalArgument(new IllegalArgumentException("Gender invalide : x" + i));
+            handler.handleVersionMismatch(new VersionMismatchException("L'utilisateur a été modifié depuis la version " + i));
+        }
+
+        assertSame(notFound, handler.handleNotFound(new ResourceNotFoundException("Utilisateur non trouvé")).getBody());
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.emnanaija.userapi.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.emnanaija.userapi.dto.BatchUserResponse;
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.entity.OutboxEvent;
+import io.github.emnanaija.userapi.repository.OutboxRepository;
+import io.github.emnanaija.userapi.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// base dédiée et passage planifié espacé : les publications ne viennent que des appels du test ;
+// nouvel essai immédiat et DEAD au deuxième échec pour suivre un événement refusé en un seul passage
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "userapi.outbox.poll-interval=1h",
+        "userapi.outbox.batch-size=2",
+        "userapi.outbox.max-attempts=2",
+        "userapi.outbox.retry-backoff=0s"
+})
+class OutboxIntegrationTest {
+
+    @TestConfiguration
+    static class InMemorySinkConfig {
+
+        @Bean
+        @Primary
+        InMemoryOutboxSink inMemoryOutboxSink() {
+            return new InMemoryOutboxSink();
+        }
+    }
+
+    static class InMemoryOutboxSink implements OutboxSink {
+
+        final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+        // agrégats dont le sink refuse les événements (et tout lot qui en contient)
+        final Set<Long> refused = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            for (OutboxEvent event : events) {
+                if (refused.contains(event.getAggregateId())) {
+                    throw new IllegalStateException("Événement refusé : " + event.getId());
+                }
+            }
+            received.addAll(events);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        sink.refused.clear();
+        sink.received.clear();
+    }
+
+    @Test
+    void shouldWriteOutboxRowWithUserAndPublishItLater() throws Exception {
+        UserResponse user = userService.createUser(
+                new UserRequest("Outbox", LocalDate.of(1990, 1, 1), "France", null, null));
+
+        // écrit avec l'utilisateur, pas encore publié
+        assertEquals(1, outboxRepository.count());
+        assertTrue(sink.received.isEmpty());
+
+        outboxPublisher.poll();
+
+        assertEquals(1, sink.received.size());
+        OutboxEvent event = sink.received.get(0);
+        assertEquals(OutboxWriter.USER_CREATED, event.getEventType());
+        assertEquals(user.getId(), event.getAggregateId());
+        assertEquals("Outbox", objectMapper.readTree(event.getPayload()).get("username").asText());
+        assertEquals(0, outboxRepository.count());
+        assertNotNull(meterRegistry.find("userapi.outbox.lag").timer());
+    }
+
+    @Test
+    void shouldDrainBatchImportInSeveralBatches() {
+        List<UserRequest> requests = List.of(
+                new UserRequest("Lot1", LocalDate.of(1990, 1, 1), "France", null, null),
+                new UserRequest("Lot2", LocalDate.of(1990, 1, 1), "France", null, null),
+                new UserRequest("Lot3", LocalDate.of(1990, 1, 1), "France", null, null),
+                new UserRequest("Mineur", LocalDate.now().minusYears(10), "France", null, null));
+        BatchUserResponse response = userService.createUsers(requests);
+        assertEquals(3, response.getCreated());
+        assertEquals(3, outboxRepository.count());
+
+        double before = meterRegistry.get("userapi.outbox.published").counter().count();
+        outboxPublisher.poll();
+
+        assertEquals(3, sink.received.size());
+        assertTrue(sink.received.get(0).getId() < sink.received.get(2).getId());
+        assertEquals(before + 3, meterRegistry.get("userapi.outbox.published").counter().count());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void shouldSetAsideARefusedEventWithoutBlockingTheOthers() {
+        UserResponse poison = userService.createUser(
+                new UserRequest("Refuse", LocalDate.of(1990, 1, 1), "France", null, null));
+        UserResponse healthy = userService.createUser(
+                new UserRequest("Accepte", LocalDate.of(1990, 1, 1), "France", null, null));
+        sink.refused.add(poison.getId());
+        double deadBefore = meterRegistry.get("userapi.outbox.dead.lettered").counter().count();
+
+        outboxPublisher.poll();
+
+        // le lot refusé est repris un par un : l'événement sain passe, l'autre est réessayé puis mis de côté
+        assertEquals(List.of(healthy.getId()), sink.received.stream().map(OutboxEvent::getAggregateId).toList());
+        List<OutboxEvent> remaining = outboxRepository.findAll();
+        assertEquals(1, remaining.size());
+        assertEquals(poison.getId(), remaining.get(0).getAggregateId());
+        assertEquals(OutboxEvent.Status.DEAD, remaining.get(0).getStatus());
+        assertEquals(2, remaining.get(0).getAttempts());
+        assertEquals(deadBefore + 1, meterRegistry.get("userapi.outbox.dead.lettered").counter().count());
+        assertEquals(0, meterRegistry.get("userapi.outbox.pending").gauge().value());
+        assertEquals(1, meterRegistry.get("userapi.outbox.dead").gauge().value());
+
+        // les événements suivants ne sont plus retenus par l'événement mis de côté
+        userService.createUser(new UserRequest("Suivant", LocalDate.of(1990, 1, 1), "France", null, null));
+        outboxPublisher.poll();
+        assertEquals(2, sink.received.size());
+    }
+
+    @Test
+    void shouldKeepTheBatchIntactAndReportTheBacklogWhenTheSinkIsDown() throws Exception {
+        UserResponse first = userService.createUser(
+                new UserRequest("Panne1", LocalDate.of(1990, 1, 1), "France", null, null));
+        UserResponse second = userService.createUser(
+                new UserRequest("Panne2", LocalDate.of(1990, 1, 1), "France", null, null));
+        sink.refused.addAll(List.of(first.getId(), second.getId()));
+        double failuresBefore = meterRegistry.get("userapi.outbox.failures").counter().count();
+        Thread.sleep(20);
+
+        outboxPublisher.poll();
+
+        // aucun événement ne passe : panne du sink, aucun essai n'est décompté
+        assertTrue(sink.received.isEmpty());
+        assertEquals(failuresBefore + 1, meterRegistry.get("userapi.outbox.failures").counter().count());
+        assertTrue(outboxRepository.findAll().stream()
+                .allMatch(event -> event.getAttempts() == 0 && event.getStatus() == OutboxEvent.Status.PENDING));
+        // les jauges lues en base montent alors que plus rien n'est publié
+        assertEquals(2, meterRegistry.get("userapi.outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("userapi.outbox.oldest.age").timeGauge().value(TimeUnit.MILLISECONDS) >= 20);
+
+        sink.refused.clear();
+        outboxPublisher.poll();
+        assertEquals(2, sink.received.size());
+        assertEquals(0, meterRegistry.get("userapi.outbox.oldest.age").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldDoubleTheRetryDelayUpToTheCap() {
+        Duration base = Duration.ofSeconds(1);
+        Duration max = Duration.ofMinutes(10);
+        assertEquals(Duration.ofSeconds(1), OutboxPublisher.backoff(1, base, max));
+        assertEquals(Duration.ofSeconds(4), OutboxPublisher.backoff(3, base, max));
+        assertEquals(max, OutboxPublisher.backoff(12, base, max));
+        assertEquals(max, OutboxPublisher.backoff(100, base, max));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.emnanaija.userapi.ratelimit;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitFilter filter(String endpoint, double permitsPerSecond, int burst, int maxConcurrent) {
+        UserApiProperties properties = new UserApiProperties();
+        UserApiProperties.RateLimit.EndpointLimit limit = new UserApiProperties.RateLimit.EndpointLimit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        limit.setMaxConcurrent(maxConcurrent);
+        properties.getRateLimit().getEndpoints().put(endpoint, limit);
+        // les requêtes simulées viennent de 127.0.0.1 : la passerelle de confiance qui pose X-Client-Id
+        properties.getRateLimit().getTrustedProxies().add("127.0.0.1");
+        return new RateLimitFilter(properties, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    @Test
+    void shouldRejectClientBeyondBurstWith429AndKeepOtherClientsServed() throws Exception {
+        RateLimitFilter filter = filter(RateLimitFilter.CREATE_USER, 1, 2, 0);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("POST", "/api/users", "a"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("POST", "/api/users", "a"), rejected, chain);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("application/problem+json", rejected.getContentType());
+        assertTrue(rejected.getContentAsString(StandardCharsets.UTF_8).contains("\"status\":429"));
+        assertNull(chain.getRequest(), "la requête rejetée ne doit pas atteindre le contrôleur");
+        assertEquals(1.0, meterRegistry.get("userapi.ratelimit.rejected")
+                .tag("endpoint", RateLimitFilter.CREATE_USER).tag("reason", "rate").counter().count());
+
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/users", "b"), otherClient, new MockFilterChain());
+        assertEquals(200, otherClient.getStatus());
+        // endpoint non configuré : pas de limite
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/1", "a"), read, new MockFilterChain());
+        assertEquals(200, read.getStatus());
+    }
+
+    @Test
+    void shouldIgnoreClientHeaderFromUntrustedCallers() throws Exception {
+        RateLimitFilter filter = filter(RateLimitFilter.CREATE_USER, 1, 2, 0);
+
+        // même adresse hors passerelle, identifiant différent à chaque requête : un seul compartiment
+        int rejected = 0;
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("POST", "/api/users", "aleatoire-" + i);
+            request.setRemoteAddr("203.0.113.7");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            if (response.getStatus() == 429) {
+                rejected++;
+            }
+        }
+        assertEquals(3, rejected);
+
+        // une autre adresse garde son propre compartiment
+        MockHttpServletRequest other = request("POST", "/api/users", "aleatoire-0");
+        other.setRemoteAddr("203.0.113.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void shouldShedWith503WhenEndpointConcurrencyIsExhausted() throws Exception {
+        RateLimitFilter filter = filter(RateLimitFilter.GET_USER, 0, 1, 1);
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        // la seconde requête arrive pendant que la première occupe la seule place
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/1", "a"), first, (req, res) ->
+                filter.doFilter(request("GET", "/api/users/2", "b"), nested, new MockFilterChain()));
+
+        assertEquals(200, first.getStatus());
+        assertEquals(503, nested.getStatus());
+
+        // place rendue après la première requête
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/3", "b"), after, new MockFilterChain());
+        assertEquals(200, after.getStatus());
+    }
+
+    @Test
+    void shouldRefillTokensAtConfiguredRate() {
+        AtomicLong now = new AtomicLong(0);
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 1, 100, Duration.ofMinutes(1), now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        long wait = limiter.tryAcquire("a");
+        assertTrue(wait > 0 && wait <= 100_000_000L);
+
+        now.addAndGet(100_000_000L);
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void shouldResolveEndpointsFromMethodAndPath() {
+        assertEquals(RateLimitFilter.CREATE_USER, RateLimitFilter.endpoint(new MockHttpServletRequest("POST", "/api/users")));
+        assertEquals(RateLimitFilter.CREATE_USERS, RateLimitFilter.endpoint(new MockHttpServletRequest("POST", "/api/users/batch")));
+        assertEquals(RateLimitFilter.GET_USER, RateLimitFilter.endpoint(new MockHttpServletRequest("GET", "/api/users/42")));
+        assertEquals(RateLimitFilter.SEARCH_USERS, RateLimitFilter.endpoint(new MockHttpServletRequest("GET", "/api/users/search")));
+        assertEquals(RateLimitFilter.UPDATE_USER, RateLimitFilter.endpoint(new MockHttpServletRequest("PUT", "/api/users/42")));
+        assertEquals(RateLimitFilter.UPDATE_USER, RateLimitFilter.endpoint(new MockHttpServletRequest("PATCH", "/api/users/42")));
+        assertNull(RateLimitFilter.endpoint(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+}
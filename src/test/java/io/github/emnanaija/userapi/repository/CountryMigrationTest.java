@@ -0,0 +1,41 @@
+package io.github.emnanaija.userapi.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// V3 sur une base déjà peuplée : seuls les pays écrits autrement que "France" changent (et changent de version)
+class CountryMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:countrymigration;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void shouldNormalizeExistingCountriesAndBumpTheirVersion() throws Exception {
+        Flyway.configure().dataSource(URL, "sa", "").target("2").load().migrate();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("insert into user_entity (id, user_name, birth_date, country, version, last_modified) values "
+                    + "(1, 'a', date '1990-01-01', 'France', 0, current_timestamp), "
+                    + "(2, 'b', date '1990-01-01', ' fr ', 0, current_timestamp), "
+                    + "(3, 'c', date '1990-01-01', 'FRANCE', 4, current_timestamp)");
+
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+            Map<Long, String> rows = new LinkedHashMap<>();
+            try (ResultSet result = statement.executeQuery("select id, country, version from user_entity order by id")) {
+                while (result.next()) {
+                    rows.put(result.getLong(1), result.getString(2) + "@" + result.getLong(3));
+                }
+            }
+            assertEquals(Map.of(1L, "France@0", 2L, "France@1", 3L, "France@5"), rows);
+        }
+    }
+}
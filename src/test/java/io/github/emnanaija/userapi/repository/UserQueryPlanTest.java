@@ -0,0 +1,115 @@
+package io.github.emnanaija.userapi.repository;
+
+import io.github.emnanaija.userapi.dto.UserSearchCriteria;
+import io.github.emnanaija.userapi.enums.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// plans H2 réels des pages keyset (liste et recherche) : la requête émise par Hibernate est relue dans
+// information_schema.query_statistics puis rejouée sous EXPLAIN ANALYZE avec les mêmes paramètres
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplan")
+class UserQueryPlanTest {
+
+    private static final int ROWS = 20_000;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void populate() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from user_entity", Long.class);
+        if (count != null && count == ROWS) {
+            return;
+        }
+        jdbcTemplate.update("delete from user_entity");
+        // un utilisateur sur cent supprimé logiquement, genres répartis également
+        jdbcTemplate.update("insert into user_entity (id, user_name, birth_date, country, gender, version, last_modified, deleted_at) "
+                + "select x, 'plan' || x, dateadd('DAY', -mod(x * 7919, 20000), date '2005-01-01'), 'France', "
+                + "case mod(x, 3) when 0 then 'FEMALE' when 1 then 'MALE' else 'OTHER' end, 0, current_timestamp, "
+                + "case when mod(x, 100) = 0 then current_timestamp end "
+                + "from system_range(1, ?)", ROWS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void shouldSeekListPagesOnThePrimaryKey() throws Exception {
+        String plan = explain(() -> userRepository.findPageAfter(10_000L, Limit.of(20)), 10_000L, 20);
+
+        assertTrue(plan.contains("index sorted"), plan);
+        assertTrue(scanCount(plan) <= 25, plan);
+
+        String reverse = explain(() -> userRepository.findPageBefore(10_000L, Limit.of(20)), 10_000L, 20);
+        assertTrue(scanCount(reverse) <= 25, reverse);
+    }
+
+    @Test
+    void shouldSeekGenderSearchPagesOnTheGenderIdIndex() throws Exception {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        String plan = explain(() -> userRepository.search(criteria, null, Gender.MALE, 10_000L, 20),
+                10_000L, "MALE", 20);
+
+        assertTrue(plan.contains("IX_USER_ENTITY_GENDER_ID"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+        assertTrue(scanCount(plan) <= 25, plan);
+    }
+
+    @Test
+    void shouldSeekCountrySearchPagesOnThePrimaryKey() throws Exception {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        String plan = explain(() -> userRepository.search(criteria, "France", null, 10_000L, 20),
+                10_000L, "France", 20);
+
+        assertTrue(plan.contains("index sorted"), plan);
+        assertTrue(scanCount(plan) <= 25, plan);
+
+        String both = explain(() -> userRepository.search(criteria, "France", Gender.MALE, 10_000L, 20),
+                10_000L, "France", "MALE", 20);
+        assertTrue(scanCount(both) <= 25, both);
+    }
+
+    // exécute la requête, récupère son SQL et le rejoue sous EXPLAIN ANALYZE
+    private String explain(Supplier<?> query, Object... parameters) throws Exception {
+        jdbcTemplate.execute("set query_statistics false");
+        jdbcTemplate.execute("set query_statistics true");
+        query.get();
+        String sql = jdbcTemplate.queryForObject("select sql_statement from information_schema.query_statistics "
+                + "where sql_statement like 'select%user_entity%'", String.class);
+        jdbcTemplate.execute("set query_statistics false");
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain analyze " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static long scanCount(String plan) {
+        long total = 0;
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        while (matcher.find()) {
+            total += Long.parseLong(matcher.group(1));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.dto.UserResponse;
+import io.github.emnanaija.userapi.dto.UserVersion;
+import io.github.emnanaija.userapi.enums.Gender;
+import io.github.emnanaija.userapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotUserWarmupTest {
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final CacheManager cacheManager =
+            new ConcurrentMapCacheManager(UserService.USERS_CACHE, UserService.USER_VERSIONS_CACHE);
+    private final UserApiProperties properties = new UserApiProperties();
+
+    @Test
+    void shouldLoadMostRecentUsersPageByPageIntoBothCaches() {
+        properties.getWarmup().setUsers(3);
+        properties.getWarmup().setPageSize(2);
+        when(userRepository.findPageBefore(Long.MAX_VALUE, Limit.of(2))).thenReturn(List.of(user(30L), user(20L)));
+        when(userRepository.findPageBefore(20L, Limit.of(1))).thenReturn(List.of(user(10L)));
+
+        new HotUserWarmup(userRepository, cacheManager, properties).warmUp();
+
+        for (long id : new long[] {30L, 20L, 10L}) {
+            assertEquals(id, cacheManager.getCache(UserService.USERS_CACHE).get(id, UserResponse.class).getId());
+            assertEquals(2L, cacheManager.getCache(UserService.USER_VERSIONS_CACHE).get(id, UserVersion.class).getVersion());
+        }
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        new HotUserWarmup(userRepository, cacheManager, properties).warmUp();
+
+        verify(userRepository, never()).findPageBefore(anyLong(), any());
+    }
+
+    private static UserResponse user(Long id) {
+        return new UserResponse(id, "user" + id, LocalDate.of(1990, 1, 1), "France", null, Gender.OTHER,
+                2L, Instant.parse("2026-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.config.UserApiProperties;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyInProgressException;
+import io.github.emnanaija.userapi.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new UserApiProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void shouldReplayStoredResultWithoutRunningActionAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyStore.Outcome<Integer> first = store.execute("cle-1", "corps", calls::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> second = store.execute("cle-1", "corps", calls::incrementAndGet);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, second.value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldCollapseConcurrentRequestsWithSameKey() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyStore.Outcome<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> store.execute("cle-2", "corps", () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return calls.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<IdempotencyStore.Outcome<Integer>> future : futures) {
+                assertEquals(1, future.get().value());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldReleaseKeyAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> store.execute("cle-3", "corps", () -> {
+            throw new IllegalStateException("panne");
+        }));
+
+        IdempotencyStore.Outcome<String> retry = store.execute("cle-3", "corps", () -> "ok");
+        assertFalse(retry.replayed());
+        assertEquals("ok", retry.value());
+    }
+
+    @Test
+    void shouldRejectSameKeyWithDifferentBody() {
+        store.execute("cle-4", "corps", () -> "ok");
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> store.execute("cle-4", "autre corps", () -> "ko"));
+    }
+
+    @Test
+    void shouldReplayAndReleaseKeysOnTheReactivePath() {
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyStore.Outcome<Integer> first = store.executeReactive("cle-5", "corps",
+                () -> Mono.fromSupplier(calls::incrementAndGet)).block();
+        IdempotencyStore.Outcome<Integer> second = store.executeReactive("cle-5", "corps",
+                () -> Mono.fromSupplier(calls::incrementAndGet)).block();
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, second.value());
+        assertEquals(1, calls.get());
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> store.executeReactive("cle-5", "autre corps",
+                () -> Mono.just(2)).block());
+
+        assertThrows(IllegalStateException.class, () -> store.executeReactive("cle-6", "corps",
+                () -> Mono.error(new IllegalStateException("panne"))).block());
+        assertFalse(store.executeReactive("cle-6", "corps", () -> Mono.just("ok")).block().replayed());
+    }
+
+    @Test
+    void shouldReleaseKeyAfterAnError() {
+        assertThrows(AssertionError.class, () -> store.execute("cle-7", "corps", () -> {
+            throw new AssertionError("panne");
+        }));
+        assertEquals("ok", store.execute("cle-7", "corps", () -> "ok").value());
+
+        assertThrows(IllegalStateException.class, () -> store.executeReactive("cle-8", "corps", () -> {
+            throw new IllegalStateException("panne avant même le Mono");
+        }).block());
+        assertFalse(store.executeReactive("cle-8", "corps", () -> Mono.just("ok")).block().replayed());
+    }
+
+    @Test
+    void shouldStopWaitingForAnInFlightDuplicateAfterTheTimeout() throws Exception {
+        UserApiProperties properties = new UserApiProperties();
+        properties.getIdempotency().setWaitTimeout(Duration.ofMillis(100));
+        IdempotencyStore bounded = new IdempotencyStore(properties, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyStore.Outcome<String>> first = executor.submit(() -> bounded.execute("cle-9", "corps", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }));
+            started.await();
+
+            assertThrows(IdempotencyKeyInProgressException.class, () -> bounded.execute("cle-9", "corps", () -> "doublon"));
+            assertThrows(IdempotencyKeyInProgressException.class, () -> bounded.executeReactive("cle-9", "corps",
+                    () -> Mono.just("doublon")).block());
+
+            release.countDown();
+            assertEquals("ok", first.get().value());
+            assertTrue(bounded.execute("cle-9", "corps", () -> "doublon").replayed());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
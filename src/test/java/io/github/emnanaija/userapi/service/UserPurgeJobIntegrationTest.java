@@ -0,0 +1,77 @@
+package io.github.emnanaija.userapi.service;
+
+import io.github.emnanaija.userapi.dto.UserRequest;
+import io.github.emnanaija.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// base dédiée et passage planifié espacé : les purges ne viennent que des appels du test
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purgedb",
+        "userapi.purge.poll-interval=1h",
+        "userapi.purge.batch-size=2",
+        "userapi.purge.pause=0ms"
+})
+class UserPurgeJobIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserPurgeJob userPurgeJob;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // SQL natif : deleteAll() passe par @SQLRestriction et laisserait les utilisateurs supprimés logiquement
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from user_entity");
+    }
+
+    @Test
+    void shouldHardDeleteOnlyExpiredSoftDeletedUsersInBatches() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.createUser(
+                    new UserRequest("Purge" + i, LocalDate.of(1990, 1, 1), "France", null, null)).getId());
+        }
+        for (Long id : ids.subList(0, 3)) {
+            userService.deleteUser(id, null);
+        }
+        assertEquals(2, userRepository.count());
+        assertEquals(3, userRepository.countSoftDeleted());
+
+        double purgedBefore = meterRegistry.get("userapi.purge.deleted").counter().count();
+        // rétention non écoulée : rien n'est purgé
+        assertEquals(0, userPurgeJob.purgeExpired(Instant.now().minusSeconds(3600)));
+
+        // trois lignes en lots de deux : deux transactions
+        long batchesBefore = meterRegistry.get("userapi.purge.batch").timer().count();
+        assertEquals(3, userPurgeJob.purgeExpired(Instant.now().plusSeconds(1)));
+        assertEquals(0, userRepository.countSoftDeleted());
+        assertEquals(2, userRepository.count());
+        assertEquals(purgedBefore + 3, meterRegistry.get("userapi.purge.deleted").counter().count());
+        assertEquals(batchesBefore + 2, meterRegistry.get("userapi.purge.batch").timer().count());
+
+        userPurgeJob.purge();
+        assertEquals(0, meterRegistry.get("userapi.purge.pending").gauge().value());
+    }
+}
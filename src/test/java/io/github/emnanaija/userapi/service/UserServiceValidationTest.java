@@ -1,16 +1,20 @@
 package io.github.emnanaija.userapi.service;
 
+import io.github.emnanaija.userapi.config.UserApiProperties;
 import io.github.emnanaija.userapi.dto.UserRequest;
 import io.github.emnanaija.userapi.dto.UserResponse;
 import io.github.emnanaija.userapi.entity.UserEntity;
 import io.github.emnanaija.userapi.enums.Gender;
+import io.github.emnanaija.userapi.exception.DuplicateResourceException;
 import io.github.emnanaija.userapi.exception.ResourceNotFoundException;
+import io.github.emnanaija.userapi.outbox.OutboxWriter;
 import io.github.emnanaija.userapi.repository.UserRepository;
 import io.github.emnanaija.userapi.validation.AdultFrenchResident;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Optional;
@@ -20,13 +24,19 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserServiceValidationTest {
 
     private final UserRepository userRepository = Mockito.mock(UserRepository.class);
-    private final UserService userService = new UserService(userRepository);
+    private final UserApiProperties properties = new UserApiProperties();
     private final Validator validator = jakarta.validation.Validation.buildDefaultValidatorFactory().getValidator();
+    private final UserService userService = new UserService(userRepository, validator, properties,
+            new UsernameBloomFilter(properties), Mockito.mock(ApplicationEventPublisher.class),
+            Mockito.mock(OutboxWriter.class));
 
 
     // Test 1 : genre invalide - Le service doit gérer cela
@@ -135,7 +145,7 @@ class UserServiceValidationTest {
         assertTrue(violations.isEmpty(), "La validation @AdultFrenchResident devrait passer pour un utilisateur valide");
 
         // Simule la sauvegarde en base et l'ID généré
-        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> {
             UserEntity entity = invocation.getArgument(0);
             entity.setId(1L); // Simule l'ID auto-généré
             return entity;
@@ -151,23 +161,61 @@ class UserServiceValidationTest {
         assertEquals(LocalDate.of(1990, 1, 1), response.getBirthdate());
     }
 
+    @Test
+    void shouldReportInvalidGenderOnGenderField() {
+        UserRequest request = new UserRequest("Camille", LocalDate.of(1990, 1, 1), "France", null, "inconnu");
+
+        var violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("gender", violations.iterator().next().getPropertyPath().toString());
+        assertTrue(violations.iterator().next().getMessage().contains("inconnu"));
+    }
+
+    @Test
+    void shouldAcceptCaseInsensitiveGenderAndCountry() {
+        UserRequest request = new UserRequest("Camille", LocalDate.now().minusYears(18), " fR ", null, "  female ");
+
+        assertTrue(validator.validate(request).isEmpty());
+        assertEquals(Gender.FEMALE, request.getParsedGender());
+
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        assertEquals("FEMALE", userService.createUser(request).getGender());
+    }
+
+    @Test
+    void shouldSkipExistenceQueryForUnknownUsername() {
+        UserRequest request = new UserRequest("Nouveau", LocalDate.of(1990, 1, 1), "France", null, null);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.createUser(request);
+
+        // le filtre de Bloom est vide : aucune requête d'existence
+        verify(userRepository, never()).existsByUserName(anyString());
+    }
+
+    @Test
+    void shouldThrowWhenUsernameAlreadyTaken() {
+        UserRequest request = new UserRequest("Jean", LocalDate.of(1990, 1, 1), "France", null, null);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.createUser(request);
+        when(userRepository.existsByUserName("Jean")).thenReturn(true);
+
+        assertThrows(DuplicateResourceException.class, () -> userService.createUser(request));
+    }
+
     // -----------------------------
     // Tests pour getUser(Long id)
     // -----------------------------
 
     @Test
     void shouldGetUserByIdSuccessfully() {
-        // Créer un utilisateur mocké
-        UserEntity mockEntity = new UserEntity();
-        mockEntity.setId(1L);
-        mockEntity.setUserName("Jean");
-        mockEntity.setBirthDate(LocalDate.of(1990, 1, 1));
-        mockEntity.setCountry("France");
-        mockEntity.setPhoneNumber("0123456789");
-        mockEntity.setGender(Gender.MALE);
+        // Projection renvoyée par le repository (le genre y arrive sous forme d'enum)
+        UserResponse projection = new UserResponse(1L, "Jean", LocalDate.of(1990, 1, 1), "France",
+                "0123456789", Gender.MALE);
 
         // Mock du repository
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockEntity));
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(projection));
 
         // Appel du service
         UserResponse response = userService.getUser(1L);
@@ -185,7 +233,7 @@ class UserServiceValidationTest {
     @Test
     void shouldThrowResourceNotFoundExceptionWhenUserNotFound() {
         // Mock du repository pour retourner un Optional vide
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(anyLong())).thenReturn(Optional.empty());
 
         // Vérifier que l'exception est lancée
         assertThrows(ResourceNotFoundException.class, () -> userService.getUser(999L));
@@ -194,7 +242,7 @@ class UserServiceValidationTest {
     @Test
     void shouldThrowResourceNotFoundExceptionWithCorrectMessage() {
         // Mock du repository pour retourner un Optional vide
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(anyLong())).thenReturn(Optional.empty());
 
         // Vérifier que l'exception est lancée avec le bon message
         ResourceNotFoundException exception = assertThrows(
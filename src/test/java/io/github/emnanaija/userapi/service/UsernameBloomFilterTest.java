@@ -0,0 +1,41 @@
+package io.github.emnanaija.userapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameBloomFilterTest {
+
+    @Test
+    void shouldAlwaysContainInsertedValues() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user-" + i));
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearTarget() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1 % visé, marge pour la variance
+        assertTrue(falsePositives < 300, "Trop de faux positifs : " + falsePositives);
+    }
+
+    @Test
+    void shouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new UsernameBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new UsernameBloomFilter(100, 1.0));
+    }
+}